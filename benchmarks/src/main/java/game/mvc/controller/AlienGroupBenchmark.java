@@ -0,0 +1,42 @@
+package game.mvc.controller;
+
+import game.mvc.model.AlienFormation;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AlienFormation.update() for formations from the regular 55 aliens up to 5,000 (rounded up to whole rows of 11). Since
+ * the formation moves by its origin alone, the cost should not depend on its size. Every invocation is one tick with
+ * one elapsed frame (at the default TICK_RATE). The AlienBullets the formation fires are discarded.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class AlienGroupBenchmark {
+
+    @Param({"55", "500", "5000"})
+    private int aliens;
+
+    private AlienFormation formation;
+    private GameOpsQueue opsQueue;
+
+    @Setup
+    public void setUp() {
+        SoundLoader.setBackend(AudioBackend.SILENT);
+        new Simulation().reset(BenchmarkFixtures.SEED);
+        //updateGroup() reads the number of frames that elapsed during the tick
+        CommandCenter.getInstance().beginTick();
+        opsQueue = CommandCenter.getInstance().getOpsQueue();
+        formation = BenchmarkFixtures.alienFormation(aliens);
+    }
+
+    @Benchmark
+    public void update() {
+        formation.update();
+        opsQueue.clear();
+    }
+}
@@ -0,0 +1,69 @@
+package game.mvc.controller;
+
+import game.mvc.model.AlienFormation;
+import game.mvc.model.Sprite;
+import game.mvc.view.BackgroundLayer;
+import game.mvc.view.BandedRenderer;
+import game.mvc.view.RenderSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * BandedRenderer.render() of a whole frame: level 1 (stars and bunkers in the background layer) plus an AlienFormation
+ * of the given size and as many bullets, all captured in one RenderSnapshot. With bands=1 a single thread draws the
+ * frame; the speed-up with more bands is bounded by the cores of the machine.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class BandedRenderBenchmark {
+
+    @Param({"100", "1000"})
+    private int sprites;
+
+    @Param({"1", "4"})
+    private int bands;
+
+    private BandedRenderer renderer;
+    private RenderSnapshot snapshot;
+    private BufferedImage background;
+
+    @Setup
+    public void setUp() {
+        Simulation simulation = BenchmarkFixtures.startLevel(new Simulation());
+        //the sprite images load in the background; nothing is drawn until they are there
+        ImageLoader.awaitAtlas();
+
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        GameOpsQueue opsQueue = commandCenter.getOpsQueue();
+        AlienFormation formation = BenchmarkFixtures.alienFormation(sprites);
+        opsQueue.enqueue(formation, GameOp.Action.ADD);
+        for (Sprite bullet : BenchmarkFixtures.bulletSpray(sprites, commandCenter.getLaserCannon(),
+                new Point(Game.DIM.width / 2, 100), new Random(BenchmarkFixtures.SEED))) {
+            opsQueue.enqueue(bullet, GameOp.Action.ADD);
+        }
+        simulation.processGameOpsQueue();
+
+        snapshot = new RenderSnapshot();
+        snapshot.capture(1, System.nanoTime(), 0);
+        background = new BackgroundLayer(Game.DIM.width, Game.DIM.height).update(null, snapshot, 1.0);
+        renderer = new BandedRenderer(Game.DIM.width, Game.DIM.height, bands);
+    }
+
+    @TearDown
+    public void tearDown() {
+        renderer.shutdown();
+    }
+
+    @Benchmark
+    public BufferedImage renderFrame() {
+        return renderer.render(snapshot, 1.0, background);
+    }
+}
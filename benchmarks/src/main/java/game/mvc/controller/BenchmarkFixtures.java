@@ -0,0 +1,63 @@
+package game.mvc.controller;
+
+import game.mvc.model.AlienBullet;
+import game.mvc.model.AlienFormation;
+import game.mvc.model.Bullet;
+import game.mvc.model.Bunker;
+import game.mvc.model.LaserCannon;
+import game.mvc.model.Sprite;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Reproducible game states for the benchmarks. Everything random is drawn from generators seeded with SEED, so every
+ * fork of every run measures exactly the same sprites in exactly the same places.
+ */
+final class BenchmarkFixtures {
+
+    static final long SEED = 20240601L;
+
+    private BenchmarkFixtures() {
+    }
+
+    //a fresh session in which START has been pressed and the first tick has spawned level 1: the formation, 4 bunkers,
+    //100 stars and the laserCannon. Sound is switched off.
+    static Simulation startLevel(Simulation simulation) {
+        SoundLoader.setBackend(AudioBackend.SILENT);
+        simulation.reset(SEED);
+        simulation.submitKey(Simulation.START, false);
+        simulation.tick();
+        return simulation;
+    }
+
+    //a formation of (at least) count aliens in rows of 11, placed like Simulation.spawnAlienFormation() but as many
+    //rows deep as needed
+    static AlienFormation alienFormation(int count) {
+        return new AlienFormation((count + 10) / 11, 11, 150, 100);
+    }
+
+    //count bunkers in rows of 8, from the top of the screen down to the regular bunker row
+    static List<Bunker> bunkerField(int count) {
+        List<Bunker> bunkers = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            int row = i / 8;
+            int col = i % 8;
+            bunkers.add(new Bunker(60 + col * 110, 120 + (row * 55) % (Game.DIM.height - 320)));
+        }
+        return bunkers;
+    }
+
+    //count bullets spread uniformly over the screen; even ones are the player's, odd ones the aliens'
+    static List<Sprite> bulletSpray(int count, LaserCannon laserCannon, Point shooter, Random random) {
+        List<Sprite> bullets = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Sprite bullet = i % 2 == 0 ? Bullet.acquire(laserCannon) : AlienBullet.acquire(shooter);
+            bullet.setCenter(new Point(random.nextInt(Game.DIM.width), random.nextInt(Game.DIM.height)));
+            bullets.add(bullet);
+        }
+        return bullets;
+    }
+}
@@ -0,0 +1,65 @@
+package game.mvc.controller;
+
+import game.mvc.controller.collision.Broadphase;
+import game.mvc.model.Bunker;
+import game.mvc.model.Sprite;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation.checkCollisions() on level 1 (the alien formation, the laserCannon) plus a spray of bullets and a field
+ * of bunkers, with each broadphase.
+ *
+ * Bunkers are damaged by the bullets that hit them, so the first invocations stamp craters under the bullets (and the
+ * bullets inside the formation destroy the aliens they hit); from then on the state is steady and every invocation does
+ * the same broadphase queries and cell tests. The REMOVE operations that checkCollisions() enqueues are discarded
+ * instead of processed, so nothing ever leaves the game.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class CollisionBenchmark {
+
+    @Param({"10", "100", "1000"})
+    private int bullets;
+
+    @Param({"4", "16", "64"})
+    private int bunkers;
+
+    @Param({"GRID", "SAP", "BRUTE"})
+    private Broadphase.Kind broadphase;
+
+    private Simulation simulation;
+    private GameOpsQueue opsQueue;
+
+    @Setup
+    public void setUp() {
+        simulation = BenchmarkFixtures.startLevel(new Simulation(broadphase));
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        opsQueue = commandCenter.getOpsQueue();
+
+        //level 1 already has 4 bunkers. Everything goes through the GameOpsQueue, so that the typed indexes of the
+        //CommandCenter (bullets, bunkers, ...) see it.
+        for (Bunker bunker : BenchmarkFixtures.bunkerField(bunkers - 4)) {
+            opsQueue.enqueue(bunker, GameOp.Action.ADD);
+        }
+        List<Sprite> spray = BenchmarkFixtures.bulletSpray(bullets, commandCenter.getLaserCannon(),
+                commandCenter.getLaserCannon().getCenter(), new Random(BenchmarkFixtures.SEED));
+        for (Sprite bullet : spray) {
+            opsQueue.enqueue(bullet, GameOp.Action.ADD);
+        }
+        simulation.processGameOpsQueue();
+    }
+
+    @Benchmark
+    public void checkCollisions() {
+        simulation.checkCollisions();
+        opsQueue.clear();
+    }
+}
@@ -0,0 +1,60 @@
+package game.mvc.controller;
+
+import game.mvc.model.Star;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Simulation.processGameOpsQueue() under bulk operations: each invocation adds a batch of Stars to level 1 (which
+ * already holds 100 stars and 4 bunkers in the same DEBRIS list), processes the queue, then removes the batch again in
+ * a shuffled order and processes the queue once more.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class GameOpsQueueBenchmark {
+
+    @Param({"100", "1000", "10000"})
+    private int ops;
+
+    private Simulation simulation;
+    private GameOpsQueue opsQueue;
+    private List<Star> stars;
+    private List<Star> removalOrder;
+
+    @Setup
+    public void setUp() {
+        simulation = BenchmarkFixtures.startLevel(new Simulation());
+        opsQueue = CommandCenter.getInstance().getOpsQueue();
+
+        stars = new ArrayList<>(ops);
+        for (int i = 0; i < ops; i++) {
+            stars.add(new Star());
+        }
+        removalOrder = new ArrayList<>(stars);
+        Collections.shuffle(removalOrder, new Random(BenchmarkFixtures.SEED));
+    }
+
+    @Benchmark
+    public int addThenRemove() {
+        for (Star star : stars) {
+            opsQueue.enqueue(star, GameOp.Action.ADD);
+        }
+        simulation.processGameOpsQueue();
+        int size = CommandCenter.getInstance().getMovDebris().size();
+
+        for (Star star : removalOrder) {
+            opsQueue.enqueue(star, GameOp.Action.REMOVE);
+        }
+        simulation.processGameOpsQueue();
+        return size;
+    }
+}
@@ -0,0 +1,149 @@
+package game.mvc.controller;
+
+import game.mvc.model.AlienFormation;
+import game.mvc.model.Movable;
+import game.mvc.model.Sprite;
+import game.mvc.view.BackgroundLayer;
+import game.mvc.view.GraphicsRenderSink;
+import game.mvc.view.PixelRenderSink;
+import game.mvc.view.RasterCache;
+import game.mvc.view.RenderSnapshot;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sprite.renderVector() (Bullets and AlienBullets, through Bullet.draw()) and the raster drawing of an AlienFormation
+ * into an off-screen BufferedImage the size of the game-screen. Each invocation draws the whole batch of sprites.
+ *
+ * With cached=true, GraphicsRenderSink draws rasters from a RasterCache (pre-scaled images, warmed up by the first
+ * invocation); with cached=false it transforms the atlas region on every draw.
+ *
+ * The *Pixels variants draw the same through a PixelRenderSink, which plots stars, bullets and rectangles straight
+ * into the int[] of a TYPE_INT_RGB image (as the BANDED renderer does) and passes everything else on to the sink.
+ *
+ * The background benchmarks draw the level's 100 stars and 4 bunkers: once with a fill and a draw call each, as
+ * GamePanel used to, and once as the single drawImage() of an up-to-date BackgroundLayer. captureSnapshot is what the
+ * simulation thread spends on a RenderSnapshot of the level after its ticks.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Djava.awt.headless=true")
+public class RenderBenchmark {
+
+    @Param({"100", "1000"})
+    private int sprites;
+
+    @Param({"true", "false"})
+    private boolean cached;
+
+    private BufferedImage image;
+    private Graphics2D g2d;
+    private GraphicsRenderSink sink;
+    //a separate image, as grabbing the pixels of one changes how Java2D treats it
+    private BufferedImage pixelImage;
+    private Graphics2D pixelG2d;
+    private int[] pixels;
+    private PixelRenderSink pixelSink;
+
+    private List<Sprite> bullets;
+    private AlienFormation formation;
+    private List<Movable> debris;
+    private BackgroundLayer backgroundLayer;
+    private RenderSnapshot snapshot;
+
+    @Setup
+    public void setUp() {
+        BenchmarkFixtures.startLevel(new Simulation());
+        //the sprite images load in the background; nothing is drawn until they are there
+        ImageLoader.awaitAtlas();
+        image = new BufferedImage(Game.DIM.width, Game.DIM.height, BufferedImage.TYPE_INT_ARGB);
+        g2d = image.createGraphics();
+        sink = new GraphicsRenderSink(cached ? new RasterCache(RasterCache.DEFAULT_MAX_BYTES) : null);
+        sink.setGraphics(g2d);
+        pixelImage = new BufferedImage(Game.DIM.width, Game.DIM.height, BufferedImage.TYPE_INT_RGB);
+        pixelG2d = pixelImage.createGraphics();
+        pixels = ((DataBufferInt) pixelImage.getRaster().getDataBuffer()).getData();
+        GraphicsRenderSink fallback = new GraphicsRenderSink(
+                cached ? new RasterCache(RasterCache.DEFAULT_MAX_BYTES) : null);
+        fallback.setGraphics(pixelG2d);
+        pixelSink = new PixelRenderSink(fallback);
+        pixelSink.setTarget(pixels, Game.DIM.width, 0, Game.DIM.height);
+
+        formation = BenchmarkFixtures.alienFormation(sprites);
+        bullets = BenchmarkFixtures.bulletSpray(sprites, CommandCenter.getInstance().getLaserCannon(),
+                formation.getCenter(), new Random(BenchmarkFixtures.SEED));
+        debris = CommandCenter.getInstance().getMovDebris();
+        backgroundLayer = new BackgroundLayer(Game.DIM.width, Game.DIM.height);
+        snapshot = new RenderSnapshot();
+        snapshot.capture(1, System.nanoTime(), 0);
+    }
+
+    @TearDown
+    public void tearDown() {
+        g2d.dispose();
+        pixelG2d.dispose();
+    }
+
+    @Benchmark
+    public BufferedImage renderVector() {
+        for (Sprite bullet : bullets) {
+            bullet.draw(sink);
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage renderVectorPixels() {
+        for (Sprite bullet : bullets) {
+            bullet.draw(pixelSink);
+        }
+        return pixelImage;
+    }
+
+    @Benchmark
+    public BufferedImage renderRaster() {
+        formation.draw(sink);
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage renderBackgroundDirect() {
+        g2d.setColor(Color.BLACK);
+        g2d.fillRect(0, 0, Game.DIM.width, Game.DIM.height);
+        for (Movable mov : debris) {
+            if (mov.isBackground()) mov.draw(sink);
+        }
+        return image;
+    }
+
+    @Benchmark
+    public BufferedImage renderBackgroundPixels() {
+        Arrays.fill(pixels, 0);
+        for (Movable mov : debris) {
+            if (mov.isBackground()) mov.draw(pixelSink);
+        }
+        return pixelImage;
+    }
+
+    @Benchmark
+    public BufferedImage renderBackgroundLayer() {
+        g2d.drawImage(backgroundLayer.update(null, snapshot, 1.0), 0, 0, null);
+        return image;
+    }
+
+    @Benchmark
+    public RenderSnapshot captureSnapshot() {
+        snapshot.capture(1, System.nanoTime(), 0);
+        return snapshot;
+    }
+}
@@ -0,0 +1,40 @@
+package game.mvc.controller;
+
+import game.mvc.model.prime.PolarPoint;
+import org.openjdk.jmh.annotations.*;
+
+import java.awt.*;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Utils.cartesiansToPolars() on shapes of various sizes; Bullet and AlienBullet have 4 points, the LaserCannon icon 7.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class UtilsBenchmark {
+
+    @Param({"4", "16", "64"})
+    private int points;
+
+    private Point[] cartesians;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(BenchmarkFixtures.SEED);
+        cartesians = new Point[points];
+        for (int i = 0; i < points; i++) {
+            cartesians[i] = new Point(random.nextInt(21) - 10, random.nextInt(21) - 10);
+        }
+    }
+
+    @Benchmark
+    public List<PolarPoint> cartesiansToPolars() {
+        return Utils.cartesiansToPolars(cartesians);
+    }
+}
@@ -0,0 +1,217 @@
+package game.mvc.controller;
+
+import javax.imageio.ImageIO;
+import javax.sound.sampled.UnsupportedAudioFileException;
+import java.awt.image.BufferedImage;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Decodes the game's images and sounds in parallel on a small pool of daemon threads, so that nothing blocks the EDT
+ * at startup. What there is to load comes from the classpath resource index /assets.idx (one path per line), which
+ * works the same from the class directories and from a packaged jar; nothing walks the file system.
+ *
+ * Images and sounds start decoding on the first call of images() or sounds(); Game.main() calls start() to begin both
+ * before the window even exists, the HeadlessRunner never needs the sounds and so never decodes them. Nothing waits
+ * for an asset that is not there yet: the renderer skips AtlasRegions until the atlas is packed (see ImageLoader), and
+ * the audio backends skip sounds that are still decoding.
+ *
+ * Once the first frame is on screen and every asset has loaded, a startup breakdown is printed.
+ */
+public class AssetLoader {
+
+    private static final String INDEX = "assets.idx";
+    private static final AssetLoader INSTANCE = new AssetLoader();
+
+    private final long startNanos = System.nanoTime();
+    //milliseconds the JVM had been running when this class was initialized
+    private final long jvmMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+
+    private final List<String> imagePaths = new ArrayList<>();
+    private final List<String> soundNames = new ArrayList<>();
+    private final long indexNanos;
+
+    private final ThreadPoolExecutor executor;
+    private CompletableFuture<Map<String, BufferedImage>> images;
+    private final Map<String, CompletableFuture<PcmClip>> sounds = new ConcurrentHashMap<>();
+    private CompletableFuture<Void> soundsDone;
+    private final CompletableFuture<Long> firstFrame = new CompletableFuture<>();
+
+    //for the startup breakdown
+    private final AtomicLong imageDecodeNanos = new AtomicLong();
+    private final AtomicLong soundDecodeNanos = new AtomicLong();
+    private volatile long imagesDoneNanos;
+    private volatile long soundsDoneNanos;
+    private volatile long atlasNanos;
+
+    private AssetLoader() {
+        readIndex();
+        indexNanos = System.nanoTime() - startNanos;
+
+        int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 5, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "asset-loader-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        //the pool only lives as long as there is something to load
+        executor.allowCoreThreadTimeOut(true);
+    }
+
+    public static AssetLoader getInstance() {
+        return INSTANCE;
+    }
+
+    //starts decoding every image and sound
+    public void start() {
+        images();
+        sounds();
+    }
+
+    //the paths of the images in the index, as written there
+    public List<String> getImagePaths() {
+        return Collections.unmodifiableList(imagePaths);
+    }
+
+    //the file names of the sounds in the index (without the sounds/ directory)
+    public List<String> getSoundNames() {
+        return Collections.unmodifiableList(soundNames);
+    }
+
+    /**
+     * Every image of the index, decoded, keyed by its lower-case path; completes when the last one is decoded. Images
+     * that could not be read are left out (and reported).
+     */
+    public synchronized CompletableFuture<Map<String, BufferedImage>> images() {
+        if (images != null) return images;
+        List<CompletableFuture<BufferedImage>> decoded = new ArrayList<>();
+        for (String path : imagePaths) {
+            decoded.add(CompletableFuture.supplyAsync(() -> decodeImage(path), executor));
+        }
+        images = CompletableFuture.allOf(decoded.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            Map<String, BufferedImage> map = new LinkedHashMap<>();
+            for (int i = 0; i < imagePaths.size(); i++) {
+                BufferedImage img = decoded.get(i).join();
+                if (img != null) map.put(imagePaths.get(i).toLowerCase(), img);
+            }
+            imagesDoneNanos = System.nanoTime() - startNanos;
+            return map;
+        });
+        return images;
+    }
+
+    //every sound of the index, decoded for the MixerAudioBackend, by file name
+    public synchronized Map<String, CompletableFuture<PcmClip>> sounds() {
+        if (soundsDone != null) return sounds;
+        for (String name : soundNames) {
+            sounds.put(name, CompletableFuture.supplyAsync(() -> decodeSound(name), executor));
+        }
+        soundsDone = CompletableFuture.allOf(sounds.values().toArray(new CompletableFuture<?>[0]))
+                .thenRun(() -> soundsDoneNanos = System.nanoTime() - startNanos);
+        //the breakdown is printed once everything the game needs is there
+        CompletableFuture.allOf(images(), soundsDone, firstFrame).thenRun(this::printReport);
+        return sounds;
+    }
+
+    //runs a loading task on the pool, for assets that are not decoded here (see ClipAudioBackend)
+    public <T> CompletableFuture<T> submit(Callable<T> task) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                return task.call();
+            } catch (Exception e) {
+                throw new CompletionException(e);
+            }
+        }, executor);
+    }
+
+    //called once by the animation thread, when the first frame has been drawn
+    public void firstFrameShown() {
+        firstFrame.complete(System.nanoTime() - startNanos);
+    }
+
+    //called by ImageLoader with the time it took to pack the atlas
+    void atlasPacked(long nanos) {
+        atlasNanos = nanos;
+    }
+
+    private void readIndex() {
+        InputStream stream = AssetLoader.class.getClassLoader().getResourceAsStream(INDEX);
+        if (stream == null) {
+            System.err.println("Asset index not found on the classpath: " + INDEX);
+            return;
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(stream, StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                line = line.trim();
+                if (line.isEmpty() || line.startsWith("#")) continue;
+                String lower = line.toLowerCase();
+                if (lower.endsWith(".png")) {
+                    imagePaths.add(line);
+                } else if (lower.endsWith(".wav") && line.startsWith("sounds/")) {
+                    soundNames.add(line.substring("sounds/".length()));
+                } else {
+                    System.err.println("Unknown kind of asset in " + INDEX + ": " + line);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private BufferedImage decodeImage(String path) {
+        long start = System.nanoTime();
+        try (InputStream stream = AssetLoader.class.getClassLoader().getResourceAsStream(path)) {
+            if (stream == null) {
+                System.err.println("Image not found in resources: " + path);
+                return null;
+            }
+            BufferedImage img = ImageIO.read(stream);
+            if (img == null) System.err.println("Not a readable image: " + path);
+            return img;
+        } catch (IOException | RuntimeException e) {
+            //one bad image must not fail the whole atlas; ImageIO throws unchecked exceptions on some broken files
+            System.err.println("Could not read " + path + ": " + e);
+            return null;
+        } finally {
+            imageDecodeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private PcmClip decodeSound(String name) {
+        long start = System.nanoTime();
+        try {
+            return PcmClip.load(name, MixerAudioBackend.SAMPLE_RATE);
+        } catch (IOException | UnsupportedAudioFileException | RuntimeException e) {
+            //likewise, one bad sound must not keep the others from loading
+            System.err.println("Could not read " + name + ": " + e);
+            return null;
+        } finally {
+            soundDecodeNanos.addAndGet(System.nanoTime() - start);
+        }
+    }
+
+    private void printReport() {
+        System.out.printf("startup: first frame at %d ms (JVM start to loader %d ms, index %.1f ms); "
+                        + "%d images decoded in %d ms (%d ms of decoding, atlas %.1f ms); "
+                        + "%d sounds decoded in %d ms (%d ms of decoding); %d loader threads%n",
+                jvmMillis + millis(firstFrame.join()), jvmMillis, indexNanos / 1e6,
+                imagePaths.size(), millis(imagesDoneNanos), millis(imageDecodeNanos.get()), atlasNanos / 1e6,
+                soundNames.size(), millis(soundsDoneNanos), millis(soundDecodeNanos.get()),
+                executor.getLargestPoolSize());
+    }
+
+    private static long millis(long nanos) {
+        return nanos / 1_000_000;
+    }
+}
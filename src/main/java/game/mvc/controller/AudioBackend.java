@@ -0,0 +1,25 @@
+package game.mvc.controller;
+
+/**
+ * Where the sounds requested through SoundLoader end up. The game plays them through the sound card (see
+ * ClipAudioBackend); the HeadlessRunner has no sound card and uses SILENT or a RecordingAudioBackend instead.
+ */
+public interface AudioBackend {
+
+    //plays a clip from src/main/resources/sounds; looped clips (suffixed _loop) play until stop() is called
+    void play(String strPath);
+
+    //stops a looped clip; non-looped clips simply expire on their own
+    void stop(String strPath);
+
+    //discards every sound
+    AudioBackend SILENT = new AudioBackend() {
+        @Override
+        public void play(String strPath) {
+        }
+
+        @Override
+        public void stop(String strPath) {
+        }
+    };
+}
@@ -0,0 +1,153 @@
+package game.mvc.controller;
+
+
+import java.io.BufferedInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.Clip;
+import javax.sound.sampled.LineEvent;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Plays sounds through javax.sound.sampled Clips, one Clip per non-looped sound. Selected with AUDIO=clip; the
+ * default is the MixerAudioBackend.
+ */
+public class ClipAudioBackend implements AudioBackend {
+
+
+	/* A Looped clip is one that plays for an indefinite time until you call the .stopSound() method. Non-looped
+		clips, which may have multiple instances that play concurrently, must be queued onto the ThreadPoolExecutor
+		below. Make sure to place all sounds directly in the src/main/resources/sounds directory and suffix any looped
+		clips with _loop.
+	 */
+	private final Map<String, CompletableFuture<Clip>> loopedClips = new HashMap<>();
+	//whether each looped sound was last played or stopped; see setLooping()
+	private final Map<String, Boolean> loopingWanted = new ConcurrentHashMap<>();
+
+	// Open all looping sounds of the asset index up front, in parallel on the AssetLoader's threads. A looped sound
+	// that is played before its clip is open starts as soon as it is.
+	public ClipAudioBackend() {
+		AssetLoader loader = AssetLoader.getInstance();
+		for (String name : loader.getSoundNames()) {
+			if (loopedCondition(name)) loopedClips.put(name, loader.submit(() -> getLoopClip(name)));
+		}
+	}
+
+	/* ThreadPoolExecutor for playing non-looped sounds. Limit the number of threads to 5 at a time. Sounds that can
+	be played simultaneously, must be queued onto the soundExecutor at runtime.
+	 */
+	private final ThreadPoolExecutor soundExecutor = (ThreadPoolExecutor) Executors.newFixedThreadPool(5);
+
+	private static boolean loopedCondition(String str){
+		str = str.toLowerCase();
+		return str.endsWith("_loop.wav");
+	}
+
+	private static Clip getLoopClip(String name) throws Exception {
+		Clip clip = null;
+		try {
+			// Adjust the path to be relative to the resources directory
+			String relativePath = "/sounds/" + name;
+			InputStream audioSrc = ClipAudioBackend.class.getResourceAsStream(relativePath);
+
+			if (audioSrc == null) {
+				throw new IOException("No such sound file exists at " + relativePath);
+			}
+
+			InputStream bufferedIn = new BufferedInputStream(audioSrc);
+			AudioInputStream aisStream = AudioSystem.getAudioInputStream(bufferedIn);
+			clip = AudioSystem.getClip();
+			clip.open(aisStream);
+
+		} catch (UnsupportedAudioFileException | IOException | LineUnavailableException e) {
+			e.fillInStackTrace();
+			throw e;
+		}
+
+		return clip;
+	}
+
+
+
+	// Used for both looped and non-looped clips
+	@Override
+	public void play(final String strPath) {
+		//Looped clips are fetched from existing static LOOP_SOUNDS_MAP at runtime.
+		if (loopedCondition(strPath)){
+			setLooping(strPath, true);
+			return;
+		}
+        //Non-looped clips are enqueued onto executor-threadpool at runtime.
+		soundExecutor.execute(new Runnable() {
+			public void run() {
+				try {
+					Clip clp = AudioSystem.getClip();
+
+					InputStream audioSrc = ClipAudioBackend.class.getResourceAsStream("/sounds/" + strPath);
+                    assert audioSrc != null;
+                    InputStream bufferedIn = new BufferedInputStream(audioSrc);
+					AudioInputStream aisStream = AudioSystem.getAudioInputStream(bufferedIn);
+
+					clp.open(aisStream);
+					//release the line once the clip has played, or every shot would leak one
+					clp.addLineListener(event -> {
+						if (event.getType() == LineEvent.Type.STOP) clp.close();
+					});
+					clp.start();
+				} catch (Exception e) {
+					System.err.println(e.getMessage());
+				}
+			}
+		});
+
+	}
+
+	//Non-looped clips can not be stopped, they simply expire on their own. Calling this method on a
+	// non-looped clip will do nothing.
+	@Override
+	public void stop(final String strPath) {
+		if (!loopedCondition(strPath)) return;
+		setLooping(strPath, false);
+	}
+
+	//remembers whether the looped sound should be playing, and applies that to its clip as soon as the clip is open
+	//(right away if it already is). Whichever order the clip sees the calls in, it ends up in the state that was
+	//asked for last.
+	private void setLooping(String strPath, boolean looping) {
+		CompletableFuture<Clip> clip = loopedClips.get(strPath);
+		if (clip == null) return;
+		loopingWanted.put(strPath, looping);
+		clip.thenAccept(clp -> applyLooping(strPath, clp));
+	}
+
+	private void applyLooping(String strPath, Clip clp) {
+		synchronized (clp) {
+			try {
+				if (loopingWanted.get(strPath)) {
+					clp.loop(Clip.LOOP_CONTINUOUSLY);
+				} else {
+					clp.stop();
+				}
+			} catch (Exception e){
+				//catch any exception and continue.
+				e.fillInStackTrace();
+			}
+		}
+	}
+
+
+
+
+
+
+
+}
@@ -3,10 +3,11 @@ package game.mvc.controller;
 
 import java.awt.*;
 import game.mvc.model.*;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.Getter;
 
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 
 //The CommandCenter is a singleton that manages the state of the game.
@@ -27,12 +28,23 @@ public class CommandCenter {
 	private Universe universe;
 	private  int numlaserCannons;
 	private  int level;
+	//the level (1 and up) that initGame() starts on: the LEVEL environment variable, or the level a replayed session
+	//was recorded on (see Simulation.startReplay())
+	private int startLevel = startLevelFromEnv();
 	private  long score;
 	private  boolean paused;
 	private  boolean themeMusic;
 	private boolean radar; //to toggle on/off the mini-map
 	//this value is used to count the number of frames (full animation cycles) in the game
 	private long frame;
+	//The simulation ticks at Game.TICK_RATE, but counters in the model (expiry, spawn timers, animations) count frames of
+	//Game.ANIMATION_DELAY ms. elapsedFrames is the number of whole frames that passed during the current tick (usually
+	//0 or 1), and frameRemainder carries the fraction of a frame over to the next tick. See beginTick().
+	private int elapsedFrames;
+	private double frameRemainder;
+	//how far (0 to 1) between the previous and the current simulation state Movables report where they are drawn; set
+	//by RenderSnapshot.capture(), on the simulation thread
+	private volatile double renderAlpha = 1.0;
 
 	//the laserCannon is located in the movFriends list, but since we use this reference a lot, we keep track of it in a
 	//separate reference. Use final to ensure that the laserCannon ref always points to the single laserCannon object on heap.
@@ -42,7 +54,7 @@ public class CommandCenter {
 	private final Map<Universe, Dimension> miniDimHash = new HashMap<>();
 
 	/*
-	 TODO The following LinkedList<Movable> are examples of the Composite design pattern which is used to allow
+	 TODO The following EntityLists are examples of the Composite design pattern which is used to allow
 	 compositions of objects to be treated uniformly. Here are the elements of the Composite design pattern:
 
      Component: Movable serves as the component interface. It defines common methods (move(), draw(Graphics g), etc.)
@@ -51,15 +63,26 @@ public class CommandCenter {
      Leaf: Concrete classes that implement Movable (e.g., Bullet, Asteroid) are the leaf nodes. They implement the
      Movable interface and provide specific behavior.
 
-     Composite: The LinkedLists below that aggregate Movable objects (e.g., movFriends, movFoes) act as
+     Composite: The EntityLists below that aggregate Movable objects (e.g., movFriends, movFoes) act as
      composites. They manage collections of Movable objects and provide a way to iterate over and operate on them as a
      group.
 
 	 */
-	private final LinkedList<Movable> movDebris = new LinkedList<>();
-	private final LinkedList<Movable> movFriends = new LinkedList<>();
-	private final LinkedList<Movable> movFoes = new LinkedList<>();
-	private final LinkedList<Movable> movFloaters = new LinkedList<>();
+	//every Movable in the lists below has a handle issued by this registry; see EntityList
+	private final EntityRegistry registry = new EntityRegistry();
+	private final EntityList movDebris = new EntityList(registry);
+	private final EntityList movFriends = new EntityList(registry);
+	private final EntityList movFoes = new EntityList(registry);
+	private final EntityList movFloaters = new EntityList(registry);
+
+	//typed views over the lists above, maintained by Simulation.processGameOpsQueue(); see TypeIndex
+	private final TypeIndex<Bullet> bullets = new TypeIndex<>(Bullet.class);
+	private final TypeIndex<AlienBullet> alienBullets = new TypeIndex<>(AlienBullet.class);
+	private final TypeIndex<Bunker> bunkers = new TypeIndex<>(Bunker.class);
+	private final TypeIndex<AlienFormation> formations = new TypeIndex<>(AlienFormation.class);
+	private final TypeIndex<MysteryUFO> ufos = new TypeIndex<>(MysteryUFO.class);
+	@Getter(AccessLevel.NONE)
+	private final TypeIndex<?>[] typeIndexes = {bullets, alienBullets, bunkers, formations, ufos};
 
 	private final GameOpsQueue opsQueue = new GameOpsQueue();
 
@@ -82,13 +105,13 @@ public class CommandCenter {
 		return instance;
 	}
 
-	private void setLevelFromEnv(){
+	private static int startLevelFromEnv(){
 		String strLevel = System.getenv("LEVEL");
 		String envLevel = (strLevel != null) ? strLevel : "1";
 		try {
-			setLevel(Integer.parseInt(envLevel) - 1);
+			return Integer.parseInt(envLevel);
 		} catch (NumberFormatException e) {
-			setLevel(0);
+			return 1;
 		}
 	}
 
@@ -97,7 +120,7 @@ public class CommandCenter {
 		clearAll();
 		generateStarField();
 		setDimHash();
-		setLevelFromEnv();
+		setLevel(startLevel - 1);
 		setScore(0);
 		setPaused(false);
 		//set to one greater than number of laserCannons lives in your game as decrementlaserCannonNumAndSpawn() also decrements
@@ -109,11 +132,29 @@ public class CommandCenter {
 		opsQueue.enqueue(laserCannon, GameOp.Action.ADD);
         System.out.println("LaserCannon center after spawn: " + laserCannon.getCenter());
 
+        //adding is idempotent, so the queued ADD above no longer puts a second copy of the laserCannon in movFriends
         getMovFriends().add(getLaserCannon());
         System.out.println("Added LaserCannon to movFriends: " + getMovFriends().contains(getLaserCannon()));
 
     }
 
+	//puts everything back the way it is when the program starts: no game running and nothing in the game-space. Used
+	//by Simulation.reset(), so that a session can be replayed from a known state.
+	public void resetSession(){
+		clearAll();
+		opsQueue.clear();
+		universe = null;
+		numlaserCannons = 0;
+		level = 0;
+		score = 0;
+		paused = false;
+		radar = false;
+		frame = 0;
+		elapsedFrames = 0;
+		frameRemainder = 0;
+		laserCannon.reset();
+	}
+
 	private void setDimHash(){
 		//initialize with values that define the aspect ratio of the Universe. See checkNewLevel() of Game class.
 		miniDimHash.put(Universe.FREE_FLY, new Dimension(1,1));
@@ -133,17 +174,68 @@ public class CommandCenter {
 		}
 	}
 
+	//called once at the start of every simulation tick
+	public void beginTick(){
+		frameRemainder += Game.TICK_SCALE;
+		elapsedFrames = (int) frameRemainder;
+		frameRemainder -= elapsedFrames;
+
+		//remember where everything was, so the renderer can interpolate towards where it will be after this tick
+		savePositions(movDebris);
+		savePositions(movFloaters);
+		savePositions(movFoes);
+		savePositions(movFriends);
+	}
+
+	private void savePositions(EntityList list){
+		for (int i = 0; i < list.size(); i++) {
+			list.get(i).savePosition();
+		}
+	}
+
 	public void incrementFrame(){
 		frame = frame < Long.MAX_VALUE ? frame + 1 : 0;
 	}
 
 	private void clearAll(){
+		for (TypeIndex<?> index : typeIndexes) {
+			index.clear();
+		}
 		movDebris.clear();
 		movFriends.clear();
 		movFoes.clear();
 		movFloaters.clear();
 	}
 
+	//called by processGameOpsQueue() after mov has entered one of the team lists with the given handle
+	void indexAdded(Movable mov, int handle){
+		for (TypeIndex<?> index : typeIndexes) {
+			if (index.accepts(mov)) index.put(mov, handle);
+		}
+	}
+
+	//called by processGameOpsQueue() after mov, which had the given handle, has left its team list
+	void indexRemoved(Movable mov, int handle){
+		for (TypeIndex<?> index : typeIndexes) {
+			if (index.accepts(mov)) index.drop(handle);
+		}
+	}
+
+	//the alien formation of the current level, or null once it has been wiped out
+	public AlienFormation getFormation(){
+		return formations.first();
+	}
+
+	//number of aliens still alive in the current level
+	public int getAlienCount(){
+		AlienFormation formation = formations.first();
+		return formation == null ? 0 : formation.getAliveCount();
+	}
+
+	public boolean isUFOPresent(){
+		return !ufos.isEmpty();
+	}
+
 	public boolean isGameOver() {		//if the number of laserCannons is zero, then game over
 		return numlaserCannons < 1;
 	}
@@ -0,0 +1,94 @@
+package game.mvc.controller;
+
+import game.mvc.model.Movable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * One team of Movables (movFriends, movFoes, ...) in a dense array. Adding appends; removing moves the last element
+ * into the gap (swap-remove), so both are O(1) and iteration is a walk over a contiguous array. The order of the
+ * elements is therefore not the order in which they were added.
+ *
+ * Membership is by identity, through the handle that the EntityRegistry issues on add(): adding a Movable that is
+ * already in the list, or removing one that is not, does nothing. Two sprites that happen to look alike are never
+ * mistaken for each other.
+ */
+public class EntityList extends AbstractList<Movable> implements RandomAccess {
+
+    private final EntityRegistry registry;
+    private Movable[] items = new Movable[64];
+    private int size;
+
+    public EntityList(EntityRegistry registry) {
+        this.registry = registry;
+    }
+
+    @Override
+    public Movable get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return items[index];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean add(Movable mov) {
+        if (registry.isValid(mov.getHandle())) return false;
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        mov.setHandle(registry.register(mov, this, size));
+        items[size++] = mov;
+        modCount++;
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        if (!(o instanceof Movable)) return false;
+        int handle = ((Movable) o).getHandle();
+        return registry.isValid(handle) && registry.owner(handle) == this;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        if (!contains(o)) return false;
+        removeAt(registry.position(((Movable) o).getHandle()));
+        return true;
+    }
+
+    @Override
+    public Movable remove(int index) {
+        Movable mov = get(index);
+        removeAt(index);
+        return mov;
+    }
+
+    private void removeAt(int index) {
+        Movable mov = items[index];
+        int last = --size;
+        if (index != last) {
+            Movable moved = items[last];
+            items[index] = moved;
+            registry.setPosition(moved.getHandle(), index);
+        }
+        items[last] = null;
+        registry.release(mov.getHandle());
+        mov.setHandle(EntityRegistry.NO_HANDLE);
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            registry.release(items[i].getHandle());
+            items[i].setHandle(EntityRegistry.NO_HANDLE);
+            items[i] = null;
+        }
+        size = 0;
+        modCount++;
+    }
+}
@@ -0,0 +1,99 @@
+package game.mvc.controller;
+
+import game.mvc.model.Movable;
+
+import java.util.Arrays;
+
+/**
+ * Issues the handles of everything in the game-space. A handle is a stable int that packs a slot number (low
+ * SLOT_BITS bits) with the generation of that slot: when a Movable leaves the game its slot is recycled with the next
+ * generation, so a handle that is kept around afterwards is recognisably stale (see isValid()) instead of silently
+ * pointing at whatever took the slot over. NO_HANDLE (0) is never issued.
+ *
+ * For every slot the registry also remembers which EntityList holds the Movable, and at which index, which is what
+ * makes EntityList.remove() O(1).
+ */
+public class EntityRegistry {
+
+    public static final int NO_HANDLE = 0;
+
+    private static final int SLOT_BITS = 20;
+    private static final int SLOT_MASK = (1 << SLOT_BITS) - 1;
+    //generations run from 1 to MAX_GENERATION, so no handle is ever 0 and all handles are positive
+    private static final int MAX_GENERATION = (1 << (31 - SLOT_BITS)) - 1;
+
+    private Movable[] entities = new Movable[256];
+    private int[] generations = new int[256];
+    private EntityList[] owners = new EntityList[256];
+    private int[] positions = new int[256];
+    private int numSlots;
+
+    //recycled slots, used before new ones are taken
+    private int[] freeSlots = new int[256];
+    private int numFree;
+
+    //registers a Movable that is being added to list at index position, and returns its new handle
+    int register(Movable mov, EntityList list, int position) {
+        int slot;
+        if (numFree > 0) {
+            slot = freeSlots[--numFree];
+        } else {
+            if (numSlots > SLOT_MASK) throw new IllegalStateException("Too many entities");
+            if (numSlots == entities.length) grow();
+            slot = numSlots++;
+            generations[slot] = 1;
+        }
+        entities[slot] = mov;
+        owners[slot] = list;
+        positions[slot] = position;
+        return (generations[slot] << SLOT_BITS) | slot;
+    }
+
+    //frees the handle's slot; the handle, and every copy of it, is stale from now on
+    void release(int handle) {
+        int slot = handle & SLOT_MASK;
+        entities[slot] = null;
+        owners[slot] = null;
+        generations[slot] = generations[slot] == MAX_GENERATION ? 1 : generations[slot] + 1;
+        if (numFree == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, numFree * 2);
+        freeSlots[numFree++] = slot;
+    }
+
+    //true while the Movable that was given this handle is still in the game
+    public boolean isValid(int handle) {
+        if (handle <= NO_HANDLE) return false;
+        int slot = handle & SLOT_MASK;
+        return slot < numSlots && generations[slot] == handle >>> SLOT_BITS && entities[slot] != null;
+    }
+
+    //the Movable with this handle, or null if the handle is stale
+    public Movable get(int handle) {
+        return isValid(handle) ? entities[handle & SLOT_MASK] : null;
+    }
+
+    //the slot part of a handle; slots are small, dense ints that can index arrays (see TypeIndex, and DamageTracker in
+    //the view)
+    public static int slot(int handle) {
+        return handle & SLOT_MASK;
+    }
+
+    EntityList owner(int handle) {
+        return owners[handle & SLOT_MASK];
+    }
+
+    int position(int handle) {
+        return positions[handle & SLOT_MASK];
+    }
+
+    void setPosition(int handle, int position) {
+        positions[handle & SLOT_MASK] = position;
+    }
+
+    private void grow() {
+        int capacity = entities.length * 2;
+        entities = Arrays.copyOf(entities, capacity);
+        generations = Arrays.copyOf(generations, capacity);
+        owners = Arrays.copyOf(owners, capacity);
+        positions = Arrays.copyOf(positions, capacity);
+    }
+}
@@ -1,16 +1,17 @@
 package game.mvc.controller;
 
-import game.mvc.model.*;
+import game.mvc.controller.metrics.FrameMetrics;
 import game.mvc.view.GamePanel;
+import game.mvc.view.RenderSnapshot;
 
 
 import java.awt.*;
 import java.awt.event.KeyEvent;
 import java.awt.event.KeyListener;
-import java.util.ArrayList;
-import java.util.LinkedList;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
 import java.util.Random;
-import java.util.List;
 
 
 // ===============================================
@@ -26,30 +27,50 @@ public class Game implements Runnable, KeyListener {
     public static final Dimension DIM = new Dimension(900, 700); //the dimension of the game-screen.
 
     private final GamePanel gamePanel;
-    //this is used throughout many classes.
+    //this is used throughout many classes. It is seeded at the start of every session (see Simulation.reset()), and
+    //must only be used by the simulation, so that sessions can be replayed.
     public static final Random R = new Random();
 
+    //All speeds (pixels per frame) and durations (frames) in the model are tuned for one frame every ANIMATION_DELAY
+    //milliseconds. The simulation itself may tick faster; see TICK_RATE and TICK_SCALE below.
     public final static int ANIMATION_DELAY = 40; // milliseconds between frames
 
     public final static int FRAMES_PER_SECOND = 1000 / ANIMATION_DELAY;
 
+    //simulation ticks per second, set with the TICK_RATE environment variable (e.g. 25, 60 or 120)
+    public final static int TICK_RATE = tickRateFromEnv();
+    //number of frames (see ANIMATION_DELAY) that one simulation tick stands for; velocities are multiplied by this
+    public final static double TICK_SCALE = (double) FRAMES_PER_SECOND / TICK_RATE;
+    private final static long TICK_NANOS = 1_000_000_000L / TICK_RATE;
+
+    //PIPELINE=off runs the simulation on the animation thread, between frames, instead of on a thread of its own
+    public final static boolean PIPELINE = pipelineFromEnv();
+
+    //a render stall longer than this is not caught up on; the game simply slows down for that moment instead of
+    //running dozens of ticks back-to-back
+    private final static long MAX_CATCH_UP_NANOS = 250_000_000L;
+
     private final Thread animationThread;
+    //runs the simulation, unless PIPELINE is off
+    private final Thread simulationThread;
 
-    private boolean gameOverTriggered = false;
+    //everything that happens in one tick of the game, without any rendering; see Simulation
+    private final Simulation simulation = new Simulation();
 
-    // UFO spawning variables
-    private int nextUFOSpawn = MysteryUFO.MIN_SPAWN_INTERVAL +
-            Game.R.nextInt(MysteryUFO.MAX_SPAWN_INTERVAL - MysteryUFO.MIN_SPAWN_INTERVAL);
+    //what the simulation hands to the animation thread after its ticks: the game as it is to be drawn, see
+    //RenderSnapshot. Neither thread ever waits for the other; see TripleBuffer.
+    private final TripleBuffer<RenderSnapshot> snapshots = new TripleBuffer<>(RenderSnapshot::new);
+    //owned by whichever thread runs simulate()
+    private long previousTime = System.nanoTime();
+    private long accumulator;
+    private long sequence;
+    //true if the write buffer holds a snapshot that was published but never drawn
+    private boolean undrawn;
+    //owned by the animation thread: the sequence of the last snapshot drawn
+    private long drawnSequence;
 
-    //key-codes
-    private static final int
-            PAUSE = 80, // p key
-            QUIT = 81, // q key
-            LEFT = 37, // rotate left; left arrow
-            RIGHT = 39, // rotate right; right arrow
-            START = 83, // s key
-            FIRE = 32, // space key
-            MUTE = 77; // m-key mute
+    //shows or hides the frame metrics overlay; handled here, because it is not part of the game
+    private static final int METRICS = 84; // t key
 
 
     // ===============================================
@@ -58,10 +79,22 @@ public class Game implements Runnable, KeyListener {
 
     public Game() {
 
+        simulation.reset(Simulation.seedFromEnv());
+        startRecordingOrReplay();
+
+        FrameMetrics.getInstance().registerMBean();
+
         gamePanel = new GamePanel(DIM);
         gamePanel.addKeyListener(this); //Game object implements KeyListener
 
-        //fire up the animation thread
+        //fire up the simulation thread, and the animation thread that draws what it publishes
+        if (PIPELINE) {
+            simulationThread = new Thread(this::runSimulation, "simulation");
+            simulationThread.setDaemon(true);
+            simulationThread.start();
+        } else {
+            simulationThread = null;
+        }
         animationThread = new Thread(this); // pass the animation thread a runnable object, the Game object
         //set as daemon so as not to block the main thread from exiting
         animationThread.setDaemon(true);
@@ -76,11 +109,48 @@ public class Game implements Runnable, KeyListener {
 
     public static void main(String[] args) {
 
+        //images and sounds decode in the background while the window comes up; see AssetLoader
+        AssetLoader.getInstance().start();
 
         //typical Swing application start; we pass EventQueue a Runnable object.
         EventQueue.invokeLater(Game::new);
     }
 
+    //RECORD=<file> records the session's key events; REPLAY=<file> plays a recorded session back instead of
+    //listening to the keyboard. See InputRecorder.
+    private void startRecordingOrReplay() {
+        String replayPath = System.getenv("REPLAY");
+        String recordPath = System.getenv("RECORD");
+        try {
+            if (replayPath != null) {
+                simulation.startReplay(new InputReplay(new FileInputStream(replayPath)));
+                System.out.println("Replaying " + replayPath + ", seed " + simulation.getSeed());
+            } else if (recordPath != null) {
+                simulation.startRecording(new FileOutputStream(recordPath));
+                //System.exit() is the usual way out (QUIT, closing the window), so finish the file on the way out
+                Runtime.getRuntime().addShutdownHook(new Thread(simulation::stopRecording));
+                System.out.println("Recording to " + recordPath + ", seed " + simulation.getSeed());
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println("Recording/replay disabled: " + e.getMessage());
+        }
+    }
+
+    private static int tickRateFromEnv() {
+        String strRate = System.getenv("TICK_RATE");
+        try {
+            int rate = strRate == null ? FRAMES_PER_SECOND : Integer.parseInt(strRate.trim());
+            return rate > 0 ? rate : FRAMES_PER_SECOND;
+        } catch (NumberFormatException e) {
+            return FRAMES_PER_SECOND;
+        }
+    }
+
+    private static boolean pipelineFromEnv() {
+        String strPipeline = System.getenv("PIPELINE");
+        return strPipeline == null || !strPipeline.trim().equalsIgnoreCase("off");
+    }
+
     // Game implements runnable, and must have run method
     @Override
     public void run() {
@@ -89,392 +159,87 @@ public class Game implements Runnable, KeyListener {
         // thread which listens to keystrokes
         animationThread.setPriority(Thread.MIN_PRIORITY);
 
-        // and get the current time
-        long startTime = System.currentTimeMillis();
+        final long RENDER_NANOS = 1_000_000_000L / gamePanel.getDisplayRefreshRate();
 
         // this thread animates the scene
         while (Thread.currentThread() == animationThread) {
 
-            // Update alien group movement BEFORE drawing
-            updateAlienGroup();
-
-            //this call will cause all movables to move() and draw() themselves every ~40ms
-            // see GamePanel class for details
-            gamePanel.update(gamePanel.getGraphics());
-
-            checkUFOSpawn();
-
-            checkCollisions();
-            checkNewLevel();
-//            checkFloaters();
-            //this method will execute addToGame() and removeFromGame() callbacks on Movable objects
-            processGameOpsQueue();
-            //keep track of the frame for development purposes
-            CommandCenter.getInstance().incrementFrame();
-
-            // surround the sleep() in a try/catch block
-            // this simply controls delay time between
-            // the frames of the animation
-            try {
-                // The total amount of time is guaranteed to be at least ANIMATION_DELAY long.  If processing (update)
-                // between frames takes longer than ANIMATION_DELAY, then the difference between startTime -
-                // System.currentTimeMillis() will be negative, then zero will be the sleep time
-                startTime += ANIMATION_DELAY;
-
-                Thread.sleep(Math.max(0,
-                        startTime - System.currentTimeMillis()));
-            } catch (InterruptedException e) {
-                // do nothing (bury the exception), and just continue, e.g. skip this frame -- no big deal
-            }
-        } // end while
-    } // end run
+            long frameStart = System.nanoTime();
+            if (!PIPELINE) simulate();
 
-    private void updateAlienGroup() {
-        List<Alien> aliens = new ArrayList<>();
-        for (Movable mov : CommandCenter.getInstance().getMovFoes()) {
-            if (mov instanceof Alien) {
-                aliens.add((Alien) mov);
-            }
-        }
-        Alien.updateGroup(aliens);
-    }
-
-    private void checkUFOSpawn() {
-        // Only spawn UFO if game is not paused and player is alive
-        if (!CommandCenter.getInstance().isPaused() && !CommandCenter.getInstance().isGameOver()) {
-            nextUFOSpawn--;
-
-            if (nextUFOSpawn <= 0) {
-                // Check if there's already a UFO on screen
-                boolean ufoExists = CommandCenter.getInstance().getMovFoes().stream()
-                        .anyMatch(foe -> foe instanceof MysteryUFO);
+            //this call will cause the snapshot to be drawn, see GamePanel class for details
+            render();
 
-                if (!ufoExists) {
-                    CommandCenter.getInstance().getOpsQueue().enqueue(new MysteryUFO(), GameOp.Action.ADD);
+            // Rendering is paced to the refresh rate of the display; there is no point drawing frames that will
+            // never be shown. If rendering took longer than that, we do not sleep at all.
+            sleepUntil(frameStart + RENDER_NANOS);
+        } // end while
+    } // end run
 
-                    // Set next spawn time (randomized)
-                    nextUFOSpawn = MysteryUFO.MIN_SPAWN_INTERVAL +
-                            Game.R.nextInt(MysteryUFO.MAX_SPAWN_INTERVAL - MysteryUFO.MIN_SPAWN_INTERVAL);
-                }
-            }
+    //the simulation thread: ticks whenever a tick is due, and sleeps in between
+    private void runSimulation() {
+        while (Thread.currentThread() == simulationThread) {
+            sleepUntil(simulate());
         }
     }
 
-    /*
-    TODO The following two methods are an example of the Command design pattern. This approach involves deferring
-    mutations to collections (linked lists of Movables) while iterating over them, and then processing the mutations
-    later (in the processGameOpsQueue() method below). The Command design pattern decouples the request for an
-    operation from the  execution of the operation itself. We do this because mutating a data structure while iterating it
-    is dangerous and may lead to null-pointer or array-index-out-of-bounds exceptions, or other erroneous behavior.
-     */
-
-    private void checkCollisions() {
-
-        //This has order-of-growth of O(FOES * FRIENDS)
-        Point pntFriendCenter, pntFoeCenter;
-        int radFriend, radFoe;
-        for (Movable movFriend : CommandCenter.getInstance().getMovFriends()) {
-            for (Movable movFoe : CommandCenter.getInstance().getMovFoes()) {
-
-                pntFriendCenter = movFriend.getCenter();
-                pntFoeCenter = movFoe.getCenter();
-                radFriend = movFriend.getRadius();
-                radFoe = movFoe.getRadius();
-
-                //detect collision
-                if (pntFriendCenter.distance(pntFoeCenter) < (radFriend + radFoe)) {
-                    //enqueue the friend
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movFriend, GameOp.Action.REMOVE);
-                    //enqueue the foe
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movFoe, GameOp.Action.REMOVE);
-                }
-            }//end inner for
-        }//end outer for
-
-        //check for collisions between laserCannon and alien bullets
-        LaserCannon laserCannon = CommandCenter.getInstance().getLaserCannon();
-        Point pntLaserCannonCenter = CommandCenter.getInstance().getLaserCannon().getCenter();
-        int radLaserCannon = laserCannon.getRadius();
-
-        // Skip collision checks if laser cannon is waiting to respawn (off-screen)
-        if (laserCannon.getRespawnTimer() > 0) {
-            return;
-        }
-
-        for (Movable movFoe : CommandCenter.getInstance().getMovFoes()) {
-            if (movFoe instanceof AlienBullet) {
-                Point pntBulletCenter = movFoe.getCenter();
-                int radBullet = movFoe.getRadius();
-
-                if (pntLaserCannonCenter.distance(pntBulletCenter) < (radLaserCannon + radBullet)) {
-                    // Laser cannon hit by alien bullet - remove bullet and laserCannon
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movFoe, GameOp.Action.REMOVE);
-                    CommandCenter.getInstance().getOpsQueue().enqueue(laserCannon, GameOp.Action.REMOVE);
-                }
-            }
-        }//end for
-
-        // Check for collisions between PLAYER bullets and bricks
-        for (Movable movFriend : CommandCenter.getInstance().getMovFriends()) {
-            // Only check bullets, not other FRIEND objects
-            if (!(movFriend instanceof Bullet)) continue;
-
-            Point pntBulletCenter = movFriend.getCenter();
-            int radBullet = movFriend.getRadius();
-
-            for (Movable movDebris : CommandCenter.getInstance().getMovDebris()) {
-                // Only check bricks
-                if (!(movDebris instanceof Brick)) continue;
-
-                Point pntBrickCenter = movDebris.getCenter();
-                int radBrick = movDebris.getRadius();
-
-                // Detect collision
-                if (pntBulletCenter.distance(pntBrickCenter) < (radBullet + radBrick)) {
-                    // Remove  brick
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movDebris, GameOp.Action.REMOVE);
-                    // Remove neighboring bricks within damage radius
-                    final int DAMAGE_RADIUS = 15; // Adjust this to remove more/fewer bricks
-                    for (Movable neighbor : CommandCenter.getInstance().getMovDebris()) {
-                        if (neighbor instanceof Brick && neighbor != movDebris) {
-                            double distance = pntBrickCenter.distance(neighbor.getCenter());
-                            if (distance < DAMAGE_RADIUS) {
-                                CommandCenter.getInstance().getOpsQueue().enqueue(neighbor, GameOp.Action.REMOVE);
-                            }
-                        }
-                    }
-                    // Remove bullet
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movFriend, GameOp.Action.REMOVE);
-
-                    // Break inner loop since this bullet is destroyed
-                    break;
-                }
+    // The simulation advances in fixed steps of TICK_NANOS, no matter how long a frame takes to render. Real time is
+    // collected in the accumulator and spent one tick at a time; the result is published as a RenderSnapshot, stamped
+    // with the time its last tick was due, from which the renderer works out how far to interpolate between the last
+    // two simulation states. Returns the time the next tick is due.
+    private long simulate() {
+        long now = System.nanoTime();
+        accumulator += Math.min(now - previousTime, MAX_CATCH_UP_NANOS);
+        previousTime = now;
+
+        if (accumulator >= TICK_NANOS) {
+            while (accumulator >= TICK_NANOS) {
+                simulation.tick();
+                accumulator -= TICK_NANOS;
             }
-        }
 
-        // Check alien bullets against bricks
-        for (Movable movFoe : CommandCenter.getInstance().getMovFoes()) {
-            // Only check alien bullets
-            if (!(movFoe instanceof AlienBullet)) continue;
-
-            Point pntBulletCenter = movFoe.getCenter();
-            int radBullet = movFoe.getRadius();
-
-            for (Movable movDebris : CommandCenter.getInstance().getMovDebris()) {
-                // Only check bricks
-                if (!(movDebris instanceof Brick)) continue;
-
-                Point pntBrickCenter = movDebris.getCenter();
-                int radBrick = movDebris.getRadius();
-
-                // Detect collision
-                if (pntBulletCenter.distance(pntBrickCenter) < (radBullet + radBrick)) {
-                    /// Remove  brick
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movDebris, GameOp.Action.REMOVE);
-                    // Remove neighboring bricks within damage radius
-                    final int DAMAGE_RADIUS = 15; // Adjust this to remove more/fewer bricks
-                    for (Movable neighbor : CommandCenter.getInstance().getMovDebris()) {
-                        if (neighbor instanceof Brick && neighbor != movDebris) {
-                            double distance = pntBrickCenter.distance(neighbor.getCenter());
-                            if (distance < DAMAGE_RADIUS) {
-                                CommandCenter.getInstance().getOpsQueue().enqueue(neighbor, GameOp.Action.REMOVE);
-                            }
-                        }
-                    }
-                    // Remove bullet
-                    CommandCenter.getInstance().getOpsQueue().enqueue(movFoe, GameOp.Action.REMOVE);
-
-                    // Break inner loop since this bullet is destroyed
-                    break;
-                }
-            }
+            long snapshotStart = System.nanoTime();
+            RenderSnapshot snapshot = snapshots.getWriteBuffer();
+            long inputNanos = simulation.takeInputNanos();
+            //a snapshot that was never drawn holds key events older than any since, none of them on screen yet
+            if (undrawn && snapshot.getInputNanos() != 0) inputNanos = snapshot.getInputNanos();
+            snapshot.capture(++sequence, now - accumulator, inputNanos);
+            undrawn = snapshots.publish();
+            FrameMetrics.getInstance().lap(FrameMetrics.Phase.SNAPSHOT, snapshotStart);
         }
-
-        // Check if any alien has reached the laser cannon level (game over condition)
-        if (!gameOverTriggered) {
-            int laserCannonY = CommandCenter.getInstance().getLaserCannon().getCenter().y;
-            for (Movable movFoe : CommandCenter.getInstance().getMovFoes()) {
-                if (movFoe instanceof Alien) {
-                    if (movFoe.getCenter().y >= laserCannonY - 30) { // 30 pixel buffer
-                        // Alien reached the bottom - Game Over!
-                        gameOverTriggered = true;
-                        CommandCenter.getInstance().setNumlaserCannons(0); // Triggers game over
-                        SoundLoader.playSound("kapow.wav");
-                        break;
-                    }
-                }
-            }
-        }
-
-
-
-    }//end meth
-
-
-    //This method adds and removes movables to/from their respective linked-lists.
-    private void processGameOpsQueue() {
-
-        //deferred mutation: these operations are done AFTER we have completed our collision detection to avoid
-        // mutating the movable linkedlists while iterating them above.
-        while (!CommandCenter.getInstance().getOpsQueue().isEmpty()) {
-
-            GameOp gameOp = CommandCenter.getInstance().getOpsQueue().dequeue();
-
-            //given team, determine which linked-list this object will be added-to or removed-from
-            LinkedList<Movable> list;
-            Movable mov = gameOp.getMovable();
-            switch (mov.getTeam()) {
-                case FOE:
-                    list = CommandCenter.getInstance().getMovFoes();
-                    break;
-                case FRIEND:
-                    list = CommandCenter.getInstance().getMovFriends();
-                    break;
-                case FLOATER:
-                    list = CommandCenter.getInstance().getMovFloaters();
-                    break;
-                case DEBRIS:
-                default:
-                    list = CommandCenter.getInstance().getMovDebris();
-            }
-
-            //pass the appropriate linked-list from above
-            //this block will execute the addToGame() or removeFromGame() callbacks in the Movable models.
-            GameOp.Action action = gameOp.getAction();
-            if (action == GameOp.Action.ADD) {
-                mov.addToGame(list);
-            } else if (action == GameOp.Action.REMOVE) {
-                mov.removeFromGame(list);
-            }
-        }//end while
+        return now - accumulator + TICK_NANOS;
     }
 
-
-//    private void spawnShieldFloater() {
-//
-//        if (CommandCenter.getInstance().getFrame() % ShieldFloater.SPAWN_SHIELD_FLOATER == 0) {
-//            CommandCenter.getInstance().getOpsQueue().enqueue(new ShieldFloater(), GameOp.Action.ADD);
-//        }
-//    }
-
-//    private void spawnNukeFloater() {
-//
-//        if (CommandCenter.getInstance().getFrame() % NukeFloater.SPAWN_NUKE_FLOATER == 0) {
-//            CommandCenter.getInstance().getOpsQueue().enqueue(new NukeFloater(), GameOp.Action.ADD);
-//        }
-//    }
-
-
-//    //this method spawns new Large (0) Asteroids
-//    private void spawnBigAsteroids(int num) {
-//
-//        while (num-- > 0) {
-//            //Asteroids with size of zero are big
-//            CommandCenter.getInstance().getOpsQueue().enqueue(new Asteroid(0), GameOp.Action.ADD);
-//
-//        }
-//    }
-
-    
-
-    private boolean isLevelClear() {
-        //if there are no more Aliens on the screen
-        boolean alienFree = true;
-        for (Movable movFoe : CommandCenter.getInstance().getMovFoes()) {
-            if (movFoe instanceof Alien) {
-                alienFree = false;
-                break;
+    //draws the latest snapshot, interpolated to the present
+    private void render() {
+        RenderSnapshot snapshot = snapshots.take();
+        //nothing was published yet
+        if (snapshot.getSequence() == 0) return;
+
+        double alpha = Math.min(1.0, Math.max(0.0, (System.nanoTime() - snapshot.getTickNanos()) / (double) TICK_NANOS));
+        long renderStart = System.nanoTime();
+        gamePanel.renderFrame(snapshot, alpha);
+        FrameMetrics.getInstance().lap(FrameMetrics.Phase.RENDER, renderStart);
+
+        //the first frame of a snapshot is the one that shows its key events
+        if (snapshot.getSequence() != drawnSequence) {
+            if (drawnSequence == 0) AssetLoader.getInstance().firstFrameShown();
+            drawnSequence = snapshot.getSequence();
+            if (snapshot.getInputNanos() != 0) {
+                FrameMetrics.getInstance().lap(FrameMetrics.Phase.INPUT_LATENCY, snapshot.getInputNanos());
             }
         }
-        return alienFree;
     }
 
-    private void checkNewLevel() {
-
-        //short-circuit if level not yet cleared
-        if (!isLevelClear()) return;
-
-        //currentLevel will be zero at beginning of game
-        int level = CommandCenter.getInstance().getLevel();
-        //award some points for having cleared the previous level
-        CommandCenter.getInstance().setScore(CommandCenter.getInstance().getScore() + (10_000L * level));
-
-        //center the laserCannon at each level-clear
-        CommandCenter.getInstance().getLaserCannon().setCenter(new Point(Game.DIM.width / 2, Game.DIM.height / 2));
-
-        //Set universe according to mod of level - cycle through universes
-        int ordinal = level % CommandCenter.Universe.values().length;
-        CommandCenter.Universe key = CommandCenter.Universe.values()[ordinal];
-        CommandCenter.getInstance().setUniverse(key);
-        //players will need radar in the big universes, but they can still toggle it off
-        CommandCenter.getInstance().setRadar(ordinal > 1);
-
-        //bump the level up
-        level = level + 1;
-        CommandCenter.getInstance().setLevel(level);
-       
-        //spawn the alien formation
-        spawnAlienFormation();
-
-        // Spawn 4 bunkers
-        spawnBunkers();
-
-        //make laserCannon invincible momentarily in case new asteroids spawn on top of him, and give player
-        //time to adjust to new universe and new asteroids in game space.
-        CommandCenter.getInstance().getLaserCannon().setShield(LaserCannon.INITIAL_SPAWN_TIME);
-        //show "Level: [X] UNIVERSE" in middle of screen
-        CommandCenter.getInstance().getLaserCannon().setShowLevel(LaserCannon.INITIAL_SPAWN_TIME);
-
-
-    }
-    
-    // Alien formation - 55 aliens
-    private void spawnAlienFormation() {
-        final int ROWS = 5;
-        final int COLS = 11;
-        final int ALIEN_SPACING_X = 60;
-        final int ALIEN_SPACING_Y = 50;
-        final int START_X = 150; // Left margin
-        final int START_Y = 100; // Top margin
-
-        // Reset alien group movement
-        Alien.resetGroupMovement();
-
-        for (int row = 0; row < ROWS; row++) {
-            for (int col = 0; col < COLS; col++) {
-                int x = START_X + (col * ALIEN_SPACING_X);
-                int y = START_Y + (row * ALIEN_SPACING_Y);
-
-                // Determine alien type based on your specific formation:
-                // Row 0: Orange (40 points)
-                // Rows 1-2: Lime (20 points) 
-                // Rows 3-4: Pink (10 points)
-                int alienType;
-                if (row == 0) {
-                    alienType = 3; // Orange - top row (40 points)
-                } else if (row == 1 || row == 2) {
-                    alienType = 2; // Lime - middle 2 rows (20 points)
-                } else {
-                    alienType = 1; // Pink - bottom 2 rows (10 points)
-                }
-
-                System.out.println("Spawning alien type " + alienType + " at (" + x + ", " + y + ")"); // Debug output
-                CommandCenter.getInstance().getOpsQueue().enqueue(
-                        new Alien(alienType, x, y), GameOp.Action.ADD);
+    private static void sleepUntil(long nanos) {
+        // surround the sleep() in a try/catch block
+        try {
+            long sleepNanos = nanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                Thread.sleep(sleepNanos / 1_000_000, (int) (sleepNanos % 1_000_000));
             }
-        }
-    }
-
-    private void spawnBunkers() {
-        int bunkerY = Game.DIM.height - 200; // above player
-        int screenWidth = Game.DIM.width;
-        int spacing = screenWidth / 5; // Divide screen into 5 sections for 4 bunkers
-
-        // Create 4 bunkers evenly spaced
-        for (int i = 1; i <= 4; i++) {
-            int x = spacing * i;
-            Bunker bunker = new Bunker(x, bunkerY);
-            bunker.addToGame();
+        } catch (InterruptedException e) {
+            // do nothing (bury the exception), and just continue, e.g. skip this frame -- no big deal
         }
     }
 
@@ -482,69 +247,31 @@ public class Game implements Runnable, KeyListener {
     // KEYLISTENER METHODS
     // ===============================================
 
+    //Key events only get posted here; the simulation applies them at the start of its next tick, see
+    //Simulation.applyKey(). Only QUIT and METRICS are handled right away; METRICS is a view key, so it is never
+    //submitted (or recorded). The EDT is the only thread that submits keys.
     @Override
     public void keyPressed(KeyEvent e) {
-        LaserCannon laserCannon = CommandCenter.getInstance().getLaserCannon();
         int keyCode = e.getKeyCode();
-        switch (keyCode) {
-            case LEFT:
-                //Move left horizontally
-                int newX = laserCannon.getCenter().x - 15; // Adjust speed as needed
-                laserCannon.setCenter(new Point(newX, laserCannon.getCenter().y));
-                break;
-            case RIGHT:
-                // Move right horizontally  
-                int newXRight = laserCannon.getCenter().x + 15; // Adjust speed as needed
-                laserCannon.setCenter(new Point(newXRight, laserCannon.getCenter().y));
-                break;
-            default:
-                break;
-        }
-
+        if (keyCode == METRICS) return;
+        simulation.submitKey(keyCode, true);
     }
 
     @Override
     public void keyReleased(KeyEvent e) {
-        LaserCannon laserCannon = CommandCenter.getInstance().getLaserCannon();
         int keyCode = e.getKeyCode();
         //show the key-code in the console
         System.out.println(keyCode);
 
-        if (keyCode == START && CommandCenter.getInstance().isGameOver()) {
-            gameOverTriggered = false;
-            CommandCenter.getInstance().initGame();
-            return;
+        if (keyCode == Simulation.QUIT) {
+            System.out.println("Thanks for playing!");
+            System.exit(0);
         }
-
-        switch (keyCode) {
-            case FIRE:
-                CommandCenter.getInstance().getOpsQueue().enqueue(new Bullet(laserCannon), GameOp.Action.ADD);
-                break;
-            case PAUSE:
-                CommandCenter.getInstance().setPaused(!CommandCenter.getInstance().isPaused());
-                System.out.println("Game Paused");
-                break;
-            case QUIT:
-                System.out.println("Thanks for playing!");
-                System.exit(0);
-                break;
-            case MUTE:
-                //if music is currently playing, then stop
-                if (CommandCenter.getInstance().isThemeMusic()) {
-                    SoundLoader.stopSound("spaceinvaders1.wav");
-                    System.out.println("Music Muted");
-                } else { //else not playing, then play
-                    SoundLoader.playSound("spaceinvaders1.wav");
-                    System.out.println("Music Playing");
-                }
-                //toggle the boolean switch
-                CommandCenter.getInstance().setThemeMusic(!CommandCenter.getInstance().isThemeMusic());
-                break;
-            default:
-                break;
-
+        if (keyCode == METRICS) {
+            gamePanel.toggleMetricsOverlay();
+            return;
         }
-
+        simulation.submitKey(keyCode, false);
     }
 
     @Override
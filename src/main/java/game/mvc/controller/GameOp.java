@@ -1,26 +1,19 @@
 package game.mvc.controller;
 
-import game.mvc.model.Movable;
-import lombok.AllArgsConstructor;
-import lombok.Data;
-
 /**
- The GameOp (short for Game Operation) simply associates a movable with an action. Once
+ The GameOp (short for Game Operation) associates a movable with an action. Once
  the GameOpsQueue is processed it will add/remove movables from their appropriate list
  in the CommandCenter depending on the movable's team.
- */
 
-//the lombok @Data gives us automatic getters and setters
-@Data
-//the lombok @AllArgsConstructor gives us an All-Args-Constructor :)
-@AllArgsConstructor
-public class GameOp {
+ The GameOpsQueue stores operations as primitive records (movable, handle, action code) instead of GameOp objects,
+ so this class only names the actions.
+ */
+public final class GameOp {
     //this could also be a boolean, but we want to be explicit about what we're doing
     public enum Action {
         ADD, REMOVE
     }
-    //members
-    private Movable movable;
-    private Action action;
+
+    private GameOp() {}
 
 }
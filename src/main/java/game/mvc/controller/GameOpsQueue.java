@@ -1,22 +1,145 @@
 package game.mvc.controller;
 
 import game.mvc.model.Movable;
-import java.util.concurrent.LinkedBlockingDeque;
 
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReference;
 
 
 /**
- * Effectively a Queue that enqueues and dequeues Game Operations (add/remove).
- * enqueue() may be called by main and animation threads simultaneously, therefore we
- * use a data structure from the java.util.concurrent package.
+ * The queue of deferred Game Operations (add/remove), see GameOp and Simulation.processGameOpsQueue().
+ *
+ * Nearly every operation is enqueued by the thread that also processes the queue (the animation thread, or the
+ * HeadlessRunner's main thread), so that thread gets a ring buffer of three parallel arrays (the movable, its handle,
+ * and the action code) that is written without locks or allocation. The ring only grows when a tick enqueues more
+ * than ever before.
+ *
+ * Any other thread goes through a lock-free multi-producer queue (Dmitry Vyukov's intrusive MPSC queue), which
+ * allocates one small node per operation; drain() moves those operations into the ring before processing it. The
+ * order of operations from one thread is kept, there is no order between threads.
+ *
+ * The owner is the thread that last called drain() or clear(). Changing owners is safe as long as the old and the new
+ * owner synchronize with each other, as Simulation's synchronized methods do.
  */
-public class GameOpsQueue extends LinkedBlockingDeque<GameOp> {
+public class GameOpsQueue {
+
+    //called by drain() for every operation, in order; the handle is that of the movable when it was enqueued
+    public interface Handler {
+        void handle(Movable mov, int handle, GameOp.Action action);
+    }
+
+    private static final GameOp.Action[] ACTIONS = GameOp.Action.values();
+
+    private volatile Thread owner;
+
+    //the ring; capacity is a power of two, head and tail only ever increase (masked on access)
+    private Movable[] movables = new Movable[1024];
+    private int[] handles = new int[1024];
+    private byte[] actions = new byte[1024];
+    private int head;
+    private int tail;
+
+    //the multi-producer path: producers swap themselves in at last, the consumer follows next from first (a stub)
+    private final AtomicReference<Node> last;
+    private Node first;
+
+    private static final class Node {
+        private Movable movable;
+        private int handle;
+        private GameOp.Action action;
+        private volatile Node next;
+    }
+
+    public GameOpsQueue() {
+        first = new Node();
+        last = new AtomicReference<>(first);
+    }
 
     public void enqueue(Movable mov, GameOp.Action action) {
-        addLast(new GameOp(mov, action));
+        if (Thread.currentThread() == owner) {
+            put(mov, mov.getHandle(), action);
+        } else {
+            Node node = new Node();
+            node.movable = mov;
+            node.handle = mov.getHandle();
+            node.action = action;
+            //swap the node in as last, then link it; the consumer may briefly see a last node whose next is not linked
+            //yet, and simply picks the rest up on the following drain
+            last.getAndSet(node).next = node;
+        }
+    }
+
+    /**
+     * Hands every queued operation to the handler, oldest first, including the operations that the handler itself
+     * enqueues along the way; returns the number of operations handled. Must only be called by one thread at a time.
+     */
+    public int drain(Handler handler) {
+        owner = Thread.currentThread();
+        takeRemote();
+        int count = 0;
+        while (head != tail) {
+            int index = head++ & (movables.length - 1);
+            Movable mov = movables[index];
+            movables[index] = null;
+            handler.handle(mov, handles[index], ACTIONS[actions[index]]);
+            count++;
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        return head == tail && first.next == null;
+    }
+
+    //the operations in the ring; operations from other threads are only counted once drain() has taken them
+    public int size() {
+        return tail - head;
+    }
+
+    public void clear() {
+        owner = Thread.currentThread();
+        takeRemote();
+        Arrays.fill(movables, null);
+        head = tail = 0;
+    }
+
+    private void put(Movable mov, int handle, GameOp.Action action) {
+        if (tail - head == movables.length) grow();
+        int index = tail++ & (movables.length - 1);
+        movables[index] = mov;
+        handles[index] = handle;
+        actions[index] = (byte) action.ordinal();
+    }
+
+    //moves everything the other threads had enqueued when this was called into the ring; stopping at the last node of
+    //that moment keeps a busy producer from holding up the drain
+    private void takeRemote() {
+        Node end = last.get();
+        Node next;
+        while (first != end && (next = first.next) != null) {
+            put(next.movable, next.handle, next.action);
+            //next becomes the new stub
+            next.movable = null;
+            first = next;
+        }
     }
 
-    public GameOp dequeue() {
-        return removeFirst();
+    private void grow() {
+        int size = tail - head;
+        int capacity = movables.length * 2;
+        Movable[] newMovables = new Movable[capacity];
+        int[] newHandles = new int[capacity];
+        byte[] newActions = new byte[capacity];
+        for (int i = 0; i < size; i++) {
+            int index = (head + i) & (movables.length - 1);
+            newMovables[i] = movables[index];
+            newHandles[i] = handles[index];
+            newActions[i] = actions[index];
+        }
+        movables = newMovables;
+        handles = newHandles;
+        actions = newActions;
+        head = 0;
+        tail = size;
     }
 }
@@ -0,0 +1,180 @@
+package game.mvc.controller;
+
+import game.mvc.controller.metrics.FrameMetrics;
+import game.mvc.model.AlienFormation;
+import game.mvc.model.LaserCannon;
+
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+
+/**
+ * Runs complete games without a window, a sound card or any rendering, as fast as the CPU allows. A simple
+ * autopilot stands in for the player. Useful for balancing and regression runs on machines without a display:
+ *
+ *   java -cp <classpath> game.mvc.controller.HeadlessRunner --games 1000 --max-seconds 600
+ *
+ * Every game runs until it is over, or until --max-seconds of game time have been simulated. A line per game and a
+ * summary are printed to standard out.
+ *
+ * Game n is played with seed (--seed + n - 1), so a run can be repeated exactly. --record <file> writes the input of
+ * game n to <file>.n (see InputRecorder), and --replay <file> plays back a recording made here or by the Game class
+ * with RECORD=<file>, and checks that it ends in the same state.
+ */
+public class HeadlessRunner {
+
+    private final Simulation simulation = new Simulation();
+    private final RecordingAudioBackend audio = new RecordingAudioBackend();
+    //the autopilot has its own Random, so that it does not disturb the game's own sequence (Game.R). It is seeded
+    //from the game's seed, so the whole run is repeatable.
+    private final Random autopilotRandom = new Random();
+
+    private int targetX = Game.DIM.width / 2;
+    //the arrow key the autopilot holds down, or 0
+    private int heldKey;
+
+    public static void main(String[] args) {
+        //must be set before anything touches the AWT toolkit
+        System.setProperty("java.awt.headless", "true");
+
+        int games = 100;
+        int maxSeconds = 600;
+        long seed = Simulation.seedFromEnv();
+        String recordPath = null;
+        String replayPath = null;
+        for (int i = 0; i < args.length - 1; i++) {
+            switch (args[i]) {
+                case "--games":
+                    games = Integer.parseInt(args[++i]);
+                    break;
+                case "--max-seconds":
+                    maxSeconds = Integer.parseInt(args[++i]);
+                    break;
+                case "--seed":
+                    seed = Long.parseLong(args[++i]);
+                    break;
+                case "--record":
+                    recordPath = args[++i];
+                    break;
+                case "--replay":
+                    replayPath = args[++i];
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        HeadlessRunner runner = new HeadlessRunner();
+        try {
+            if (replayPath != null) {
+                runner.replay(replayPath);
+            } else {
+                runner.run(games, (long) maxSeconds * Game.TICK_RATE, seed, recordPath);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void run(int games, long maxTicks, long seed, String recordPath) throws IOException {
+        SoundLoader.setBackend(audio);
+        System.out.println("seed " + seed);
+
+        long totalTicks = 0;
+        long totalScore = 0;
+        long totalLevels = 0;
+        long startNanos = System.nanoTime();
+
+        for (int game = 1; game <= games; game++) {
+            simulation.reset(seed + game - 1);
+            autopilotRandom.setSeed(simulation.getSeed());
+            heldKey = 0;
+            if (recordPath != null) simulation.startRecording(new FileOutputStream(recordPath + "." + game));
+            //press START, as a player would
+            simulation.submitKey(Simulation.START, false);
+            long ticks = 0;
+            //the first tick spawns the first level; the game is over when the last laserCannon is lost
+            do {
+                autopilot();
+                simulation.tick();
+                ticks++;
+            } while (!CommandCenter.getInstance().isGameOver() && ticks < maxTicks);
+            simulation.stopRecording();
+
+            CommandCenter commandCenter = CommandCenter.getInstance();
+            System.out.printf("game %d: score=%d level=%d ticks=%d%s%n", game, commandCenter.getScore(),
+                    commandCenter.getLevel(), ticks, commandCenter.isGameOver() ? "" : " (time limit)");
+            totalTicks += ticks;
+            totalScore += commandCenter.getScore();
+            totalLevels += commandCenter.getLevel();
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        System.out.printf("%d games, %d ticks in %.2f s: %.0f ticks/s (%.0fx real time)%n", games, totalTicks,
+                seconds, totalTicks / seconds, totalTicks / seconds / Game.TICK_RATE);
+        System.out.printf("average score %.1f, average level %.2f%n", (double) totalScore / games,
+                (double) totalLevels / games);
+        System.out.println("sounds played: " + audio.getPlayCounts());
+        System.out.println("phase p50 (us): " + FrameMetrics.getInstance().getP50Micros());
+        System.out.println("phase p99 (us): " + FrameMetrics.getInstance().getP99Micros());
+        System.out.println("pooled sprites created: " + FrameMetrics.getInstance().getPoolCreated());
+    }
+
+    private void replay(String path) throws IOException {
+        SoundLoader.setBackend(audio);
+        InputReplay replay = new InputReplay(new FileInputStream(path));
+        simulation.startReplay(replay);
+
+        long startNanos = System.nanoTime();
+        while (!simulation.isReplayFinished()) {
+            simulation.tick();
+        }
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        long checksum = simulation.stateChecksum();
+        System.out.printf("replayed %s (seed %d): score=%d level=%d ticks=%d in %.2f s%n", path, replay.getSeed(),
+                commandCenter.getScore(), commandCenter.getLevel(), commandCenter.getFrame(), seconds);
+        if (replay.getFinalChecksum() == null) {
+            System.out.printf("checksum %016x (the recording has no end record to compare with)%n", checksum);
+        } else if (replay.getFinalChecksum() == checksum) {
+            System.out.printf("checksum %016x matches the recording%n", checksum);
+        } else {
+            System.out.printf("checksum %016x DIFFERS from the recording (%016x)%n", checksum,
+                    replay.getFinalChecksum());
+            System.exit(2);
+        }
+    }
+
+    //a very simple player: walk towards a randomly chosen alien, and fire about twice per second
+    private void autopilot() {
+        LaserCannon laserCannon = CommandCenter.getInstance().getLaserCannon();
+        if (laserCannon.getRespawnTimer() > 0) return;
+
+        //the autopilot presses and releases keys just like a player, so its games can be recorded and replayed
+        int x = laserCannon.getCenter().x;
+        if (Math.abs(targetX - x) < Simulation.LASER_CANNON_SPEED) {
+            targetX = pickTarget(x);
+        }
+        int key = Math.abs(targetX - x) < Simulation.LASER_CANNON_SPEED ? 0
+                : targetX < x ? Simulation.LEFT : Simulation.RIGHT;
+        if (key != heldKey) {
+            if (heldKey != 0) simulation.submitKey(heldKey, false);
+            if (key != 0) simulation.submitKey(key, true);
+            heldKey = key;
+        }
+        if (autopilotRandom.nextInt(Game.TICK_RATE) < 2) {
+            simulation.submitKey(Simulation.FIRE, false);
+        }
+    }
+
+    //every alive alien has the same chance of being chosen
+    private int pickTarget(int fallbackX) {
+        AlienFormation formation = CommandCenter.getInstance().getFormation();
+        if (formation == null || formation.getAliveCount() == 0) return fallbackX;
+        return formation.cellCenter(formation.nthAlive(autopilotRandom.nextInt(formation.getAliveCount()))).x;
+    }
+}
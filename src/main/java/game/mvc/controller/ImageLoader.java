@@ -1,66 +1,58 @@
 package game.mvc.controller;
 
-import javax.imageio.ImageIO;
+import game.mvc.model.prime.AtlasRegion;
+
 import java.awt.image.BufferedImage;
-import java.io.IOException;
-import java.io.InputStream;
-import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /*
-Place all .png image assets in src/main/resources/imgs or its subdirectories.
-All raster images are loaded from the classpath.
+Place all .png image assets in src/main/resources/imgs or its subdirectories, and list them in
+src/main/resources/assets.idx. All raster images are loaded from the classpath by the AssetLoader, in the background,
+and packed into one TextureAtlas; sprites refer to their images by AtlasRegion, which are handed out right away and
+are drawn once the atlas is ready.
  */
 public class ImageLoader {
 
-    private static final Map<String, BufferedImage> IMAGE_MAP = new HashMap<>();
+    //lower-case path -> region
+    private static final Map<String, AtlasRegion> REGIONS = new ConcurrentHashMap<>();
+    private static final CompletableFuture<TextureAtlas> ATLAS;
 
     static {
-        // List all image paths you want to load relative to classpath
-        String[] imagesToLoad = {
-                "imgs/laser/laserCannon.png",
-                "imgs/aliens/10PointAlien1.png",
-                "imgs/aliens/10PointAlien2.png",
-                "imgs/aliens/20PointAlien1.png",
-                "imgs/aliens/20PointAlien2.png",
-                "imgs/aliens/40PointAlien1.png",
-                "imgs/aliens/40PointAlien2.png",
-                "imgs/aliens/mysteryUFO.png",
-                "imgs/exp/red.png",
-                "imgs/exp/green.png",
-                "imgs/exp/pink.png",
-                "imgs/exp/row-1-column-1.png",
-                "imgs/exp/row-1-column-2.png",
-                "imgs/exp/row-1-column-3.png",
-                "imgs/exp/row-2-column-1.png",
-                "imgs/exp/row-2-column-2.png",
-                "imgs/exp/row-2-column-3.png",
-                "imgs/exp/row-3-column-1.png",
-                "imgs/exp/row-3-column-2.png",
-                "imgs/exp/row-3-column-3.png"
-        };
+        AssetLoader loader = AssetLoader.getInstance();
+        for (String path : loader.getImagePaths()) {
+            REGIONS.put(path.toLowerCase(), new AtlasRegion(path.toLowerCase()));
+        }
+        ATLAS = loader.images().thenApply(ImageLoader::pack);
+    }
 
-        for (String path : imagesToLoad) {
-            try (InputStream stream = ImageLoader.class.getClassLoader().getResourceAsStream(path)) {
-                if (stream == null) {
-                    System.err.println("Image not found in resources: " + path);
-                    continue;
-                }
-                BufferedImage img = ImageIO.read(stream);
-                IMAGE_MAP.put(path.toLowerCase(), img);
-            } catch (IOException e) {
-                e.printStackTrace();
-            }
+    private static TextureAtlas pack(Map<String, BufferedImage> images) {
+        long start = System.nanoTime();
+        TextureAtlas atlas = TextureAtlas.pack(images);
+        for (AtlasRegion region : REGIONS.values()) {
+            atlas.resolve(region);
         }
+        AssetLoader.getInstance().atlasPacked(System.nanoTime() - start);
+        return atlas;
     }
 
-    // Fetch image from the map
-    public static BufferedImage getImage(String imagePath) {
-        BufferedImage img = IMAGE_MAP.get(imagePath.toLowerCase());
-        if (img == null) {
+    // Fetch the image's region of the atlas; null if the image is not in the asset index
+    public static AtlasRegion getRegion(String imagePath) {
+        AtlasRegion region = REGIONS.get(imagePath.toLowerCase());
+        if (region == null) {
             System.err.println("Loaded image is null for path: " + imagePath);
         }
-        return img;
+        return region;
     }
-}
 
+    //true once every region can be drawn
+    public static boolean isAtlasReady() {
+        return ATLAS.isDone();
+    }
+
+    //waits for the atlas; for tools and benchmarks that draw right away
+    public static TextureAtlas awaitAtlas() {
+        return ATLAS.join();
+    }
+}
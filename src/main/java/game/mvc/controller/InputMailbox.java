@@ -0,0 +1,70 @@
+package game.mvc.controller;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Key events on their way from the thread that receives them (the EDT, or the HeadlessRunner's autopilot) to the
+ * simulation, which takes them all at the start of its next tick (see Simulation.applyKeys()). There is exactly one
+ * producer and one consumer, so a bounded ring with a head and a tail counter is enough: each side only writes its
+ * own counter, and publishes it with an ordered store, so neither offer() nor drain() ever locks or allocates.
+ *
+ * Every event carries the System.nanoTime() at which it was offered, so that the time from a key press to the frame
+ * that shows its effect can be measured (see FrameMetrics.Phase.INPUT_LATENCY).
+ */
+public class InputMailbox {
+
+    //called by drain() for every event, oldest first
+    public interface Handler {
+        void handle(int keyCode, boolean pressed, long nanos);
+    }
+
+    //far more events than a player can produce between two ticks; must be a power of two
+    private static final int CAPACITY = 256;
+
+    //packed as (keyCode << 1 | pressed)
+    private final int[] events = new int[CAPACITY];
+    private final long[] timestamps = new long[CAPACITY];
+    //number of events ever offered (written by the producer) and ever drained (written by the consumer)
+    private final AtomicLong tail = new AtomicLong();
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    //producer side; returns false (and counts the event as dropped) if the mailbox is full
+    public boolean offer(int keyCode, boolean pressed, long nanos) {
+        long t = tail.get();
+        if (t - head.get() == CAPACITY) {
+            dropped.incrementAndGet();
+            return false;
+        }
+        int index = (int) t & (CAPACITY - 1);
+        events[index] = keyCode << 1 | (pressed ? 1 : 0);
+        timestamps[index] = nanos;
+        //the ordered store publishes the event written above to the consumer
+        tail.lazySet(t + 1);
+        return true;
+    }
+
+    //consumer side: hands over every event offered so far; returns the number of events
+    public int drain(Handler handler) {
+        long h = head.get();
+        long t = tail.get();
+        for (long i = h; i < t; i++) {
+            int index = (int) i & (CAPACITY - 1);
+            int event = events[index];
+            handler.handle(event >> 1, (event & 1) == 1, timestamps[index]);
+        }
+        //frees the slots for the producer
+        head.lazySet(t);
+        return (int) (t - h);
+    }
+
+    //consumer side: forgets every event offered so far
+    public void clear() {
+        head.lazySet(tail.get());
+    }
+
+    //events that did not fit; a dropped release leaves its key held until it is pressed and released again
+    public long getDropped() {
+        return dropped.get();
+    }
+}
@@ -0,0 +1,71 @@
+package game.mvc.controller;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Writes the input of one session to a compact binary stream, so that InputReplay can play the session back exactly.
+ * A session is fully determined by its seed (see Simulation.reset()), the level it starts on (see
+ * CommandCenter.getStartLevel()) and by which key events were applied in which tick, so that is all that is stored:
+ *
+ *   header:  int MAGIC, byte VERSION, long seed, int tick rate, int start level
+ *   event:   varint ticks since the previous event, varint ((keyCode + 1) << 1 | pressed)
+ *   end:     varint ticks since the previous event, varint 0, long state checksum (see Simulation.stateChecksum())
+ *
+ * A typical key event takes two bytes.
+ */
+public class InputRecorder {
+
+    static final int MAGIC = 0x53495250; // "SIRP"
+    //version 2: the arrow keys move the laserCannon while they are held, instead of one step per (repeated) press
+    //version 3: bullets are swept along their path, and only their first hit counts (see Simulation.checkCollisions())
+    //version 4: the header stores the start level
+    static final int VERSION = 4;
+    //event code that marks the end of the session
+    static final int END = 0;
+
+    private final DataOutputStream out;
+    private long lastTick;
+
+    public InputRecorder(OutputStream outputStream, long seed, int tickRate, int startLevel) throws IOException {
+        out = new DataOutputStream(new BufferedOutputStream(outputStream));
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(seed);
+        out.writeInt(tickRate);
+        out.writeInt(startLevel);
+    }
+
+    //records a key event that was applied at the start of the given tick
+    public void record(long tick, int keyCode, boolean pressed) throws IOException {
+        writeTick(tick);
+        writeVarLong(((long) (keyCode + 1) << 1) | (pressed ? 1 : 0));
+    }
+
+    //marks the end of the session after the given number of ticks, and closes the stream
+    public void close(long tick, long checksum) throws IOException {
+        try {
+            writeTick(tick);
+            writeVarLong(END);
+            out.writeLong(checksum);
+        } finally {
+            out.close();
+        }
+    }
+
+    private void writeTick(long tick) throws IOException {
+        writeVarLong(tick - lastTick);
+        lastTick = tick;
+    }
+
+    //7 bits per byte, least significant group first; the high bit says another byte follows
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+}
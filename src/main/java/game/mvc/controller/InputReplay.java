@@ -0,0 +1,92 @@
+package game.mvc.controller;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Reads a session written by InputRecorder and feeds its key events back into a Simulation at the ticks they were
+ * recorded at. See Simulation.startReplay().
+ */
+public class InputReplay {
+
+    private final DataInputStream in;
+    private final long seed;
+    private final int tickRate;
+    private final int startLevel;
+
+    //the next record, read ahead of time
+    private long nextTick;
+    private long nextCode;
+    private boolean finished;
+    //the checksum stored with the end record, if the recording was closed properly
+    private Long finalChecksum;
+
+    public InputReplay(InputStream inputStream) throws IOException {
+        in = new DataInputStream(new BufferedInputStream(inputStream));
+        if (in.readInt() != InputRecorder.MAGIC) throw new IOException("Not an input recording");
+        int version = in.readUnsignedByte();
+        if (version != InputRecorder.VERSION) throw new IOException("Unsupported recording version " + version);
+        seed = in.readLong();
+        tickRate = in.readInt();
+        startLevel = in.readInt();
+        readNext();
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public int getTickRate() {
+        return tickRate;
+    }
+
+    public int getStartLevel() {
+        return startLevel;
+    }
+
+    //true once every event has been replayed and the session's last tick has been reached
+    public boolean isFinished(long tick) {
+        return finished && tick >= nextTick;
+    }
+
+    //null if the recording ended without an end record (e.g. the game crashed)
+    public Long getFinalChecksum() {
+        return finalChecksum;
+    }
+
+    //applies every event recorded for this tick
+    void replayTick(long tick, Simulation simulation) throws IOException {
+        while (!finished && nextTick == tick) {
+            simulation.applyKey((int) (nextCode >>> 1) - 1, (nextCode & 1) == 1);
+            readNext();
+        }
+    }
+
+    private void readNext() throws IOException {
+        try {
+            nextTick += readVarLong();
+            nextCode = readVarLong();
+            if (nextCode == InputRecorder.END) {
+                finalChecksum = in.readLong();
+                finished = true;
+                in.close();
+            }
+        } catch (EOFException e) {
+            //a recording that was cut short simply ends after its last complete event
+            finished = true;
+            in.close();
+        }
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; ; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) return value;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package game.mvc.controller;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.LineUnavailableException;
+import javax.sound.sampled.SourceDataLine;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * Mixes every sound in software onto a single SourceDataLine. This is the default AudioBackend of SoundLoader.
+ *
+ * All sounds are decoded once into PcmClips, in the background by the AssetLoader; a one-shot sound that is still
+ * decoding when it is played is skipped, and a looped one starts once it is decoded, unless it was stopped meanwhile.
+ * play() and stop() only queue a request; one audio thread drains the requests, adds up to MAX_VOICES playing voices
+ * into a block of BLOCK_FRAMES frames and writes it to the line, whose blocking write() paces the thread. No lines are
+ * opened per sound, and nothing is allocated while mixing.
+ *
+ * When all voices are busy, the voice that has played longest is stolen (looped voices only if nothing else is left).
+ * A sound that is requested again within DEDUPE_MILLIS of starting is not started twice: five aliens destroyed in
+ * the same frame play invaderkilled.wav once.
+ */
+public class MixerAudioBackend implements AudioBackend {
+
+    public static final float SAMPLE_RATE = 44100f;
+    //16-bit signed little-endian stereo
+    private static final AudioFormat FORMAT = new AudioFormat(SAMPLE_RATE, 16, 2, true, false);
+    private static final int BYTES_PER_FRAME = 4;
+
+    public static final int MAX_VOICES = 16;
+    //about 12 ms per block; the line buffers LINE_BLOCKS blocks, which bounds the latency of a new sound
+    private static final int BLOCK_FRAMES = 512;
+    private static final int LINE_BLOCKS = 4;
+    //one frame of the game (see Game.ANIMATION_DELAY)
+    private static final int DEDUPE_MILLIS = Game.ANIMATION_DELAY;
+    private static final long DEDUPE_FRAMES = (long) (SAMPLE_RATE * DEDUPE_MILLIS / 1000);
+
+    private final Map<String, PcmClip> clips = new ConcurrentHashMap<>();
+    private final ConcurrentLinkedQueue<Request> requests = new ConcurrentLinkedQueue<>();
+    //whether each looped sound should be playing, for the ones played or stopped before they were decoded
+    private final Map<String, Boolean> loopingWanted = new ConcurrentHashMap<>();
+
+    //owned by the audio thread
+    private final Voice[] voices = new Voice[MAX_VOICES];
+    private final int[] accumulator = new int[BLOCK_FRAMES * 2];
+    //frames mixed so far; the mixer's clock
+    private long mixedFrames;
+
+    private final SourceDataLine line;
+
+    public MixerAudioBackend() {
+        for (int i = 0; i < MAX_VOICES; i++) {
+            voices[i] = new Voice();
+        }
+        //starts decoding every sound of the asset index, if Game.main() has not already
+        AssetLoader.getInstance().sounds();
+
+        SourceDataLine localLine = null;
+        try {
+            localLine = AudioSystem.getSourceDataLine(FORMAT);
+            localLine.open(FORMAT, BLOCK_FRAMES * BYTES_PER_FRAME * LINE_BLOCKS);
+            localLine.start();
+        } catch (LineUnavailableException | IllegalArgumentException e) {
+            //no sound card: the game simply runs without sound
+            System.err.println("No audio line available, sound is off: " + e.getMessage());
+            localLine = null;
+        }
+        line = localLine;
+
+        if (line != null) {
+            Thread audioThread = new Thread(this::run, "audio-mixer");
+            audioThread.setDaemon(true);
+            audioThread.setPriority(Thread.MAX_PRIORITY);
+            audioThread.start();
+        }
+    }
+
+    //the decoded clip; null if it is still decoding, or can not be decoded. Sounds missing from the asset index are
+    //decoded on first use.
+    private PcmClip clip(String name) {
+        PcmClip clip = clips.get(name);
+        if (clip != null) return clip;
+        CompletableFuture<PcmClip> decoding = AssetLoader.getInstance().sounds().get(name);
+        if (decoding != null) {
+            clip = decoding.getNow(null);
+            if (clip == null) return null;
+        } else {
+            try {
+                clip = PcmClip.load(name, SAMPLE_RATE);
+            } catch (IOException | UnsupportedAudioFileException e) {
+                System.err.println(e.getMessage());
+                return null;
+            }
+        }
+        clips.put(name, clip);
+        return clip;
+    }
+
+    @Override
+    public void play(String strPath) {
+        if (line == null) return;
+        PcmClip clip = clip(strPath);
+        if (clip == null) {
+            whenDecoded(strPath, true);
+            return;
+        }
+        if (clip.isLooped()) loopingWanted.put(strPath, true);
+        requests.add(new Request(clip, false));
+    }
+
+    //only looped clips can be stopped; non-looped clips simply expire on their own
+    @Override
+    public void stop(String strPath) {
+        if (line == null) return;
+        PcmClip clip = clips.get(strPath);
+        if (clip == null) {
+            whenDecoded(strPath, false);
+            return;
+        }
+        if (clip.isLooped()) {
+            loopingWanted.put(strPath, false);
+            requests.add(new Request(clip, true));
+        }
+    }
+
+    //remembers whether the sound should be looping, and applies it once it is decoded
+    private void whenDecoded(String name, boolean looping) {
+        CompletableFuture<PcmClip> decoding = AssetLoader.getInstance().sounds().get(name);
+        if (decoding == null) return;
+        loopingWanted.put(name, looping);
+        decoding.thenAccept(clip -> applyLooping(name, clip));
+    }
+
+    //starts or stops the looped clip as last asked; one-shots played while decoding stay skipped
+    private void applyLooping(String name, PcmClip clip) {
+        if (clip == null || !clip.isLooped()) return;
+        clips.put(name, clip);
+        requests.add(new Request(clip, !loopingWanted.get(name)));
+    }
+
+    private void run() {
+        byte[] block = new byte[BLOCK_FRAMES * BYTES_PER_FRAME];
+        while (true) {
+            mix(block);
+            line.write(block, 0, block.length);
+        }
+    }
+
+    //mixes the next BLOCK_FRAMES frames into block
+    void mix(byte[] block) {
+        Request request;
+        while ((request = requests.poll()) != null) {
+            if (request.stop) {
+                stopVoices(request.clip);
+            } else {
+                startVoice(request.clip);
+            }
+        }
+
+        Arrays.fill(accumulator, 0);
+        for (Voice voice : voices) {
+            if (voice.clip != null) mixVoice(voice);
+        }
+
+        for (int i = 0; i < accumulator.length; i++) {
+            int sample = Math.max(Short.MIN_VALUE, Math.min(Short.MAX_VALUE, accumulator[i]));
+            block[i * 2] = (byte) sample;
+            block[i * 2 + 1] = (byte) (sample >> 8);
+        }
+        mixedFrames += BLOCK_FRAMES;
+    }
+
+    private void startVoice(PcmClip clip) {
+        Voice free = null;
+        Voice oldest = null;
+        Voice oldestOneShot = null;
+        for (Voice voice : voices) {
+            if (voice.clip == null) {
+                if (free == null) free = voice;
+                continue;
+            }
+            //de-duplication: the same sound just started, or a loop that is still running
+            if (voice.clip == clip && (clip.isLooped() || mixedFrames - voice.startedAt < DEDUPE_FRAMES)) return;
+
+            if (oldest == null || voice.startedAt < oldest.startedAt) oldest = voice;
+            if (!voice.clip.isLooped() && (oldestOneShot == null || voice.startedAt < oldestOneShot.startedAt)) {
+                oldestOneShot = voice;
+            }
+        }
+
+        //voice stealing
+        Voice voice = free != null ? free : oldestOneShot != null ? oldestOneShot : oldest;
+        voice.clip = clip;
+        voice.position = 0;
+        voice.startedAt = mixedFrames;
+    }
+
+    private void stopVoices(PcmClip clip) {
+        for (Voice voice : voices) {
+            if (voice.clip == clip) voice.clip = null;
+        }
+    }
+
+    private void mixVoice(Voice voice) {
+        PcmClip clip = voice.clip;
+        short[] samples = clip.getSamples();
+        int frames = clip.getFrames();
+        boolean stereo = clip.getChannels() == 2;
+        int position = voice.position;
+
+        for (int i = 0; i < BLOCK_FRAMES; i++) {
+            if (position >= frames) {
+                if (!clip.isLooped()) {
+                    voice.clip = null;
+                    return;
+                }
+                position = 0;
+            }
+            if (stereo) {
+                accumulator[i * 2] += samples[position * 2];
+                accumulator[i * 2 + 1] += samples[position * 2 + 1];
+            } else {
+                int sample = samples[position];
+                accumulator[i * 2] += sample;
+                accumulator[i * 2 + 1] += sample;
+            }
+            position++;
+        }
+        voice.position = position;
+    }
+
+    //a playing sound; free while clip is null
+    private static class Voice {
+        private PcmClip clip;
+        private int position;
+        private long startedAt;
+    }
+
+    private static class Request {
+        private final PcmClip clip;
+        private final boolean stop;
+
+        private Request(PcmClip clip, boolean stop) {
+            this.clip = clip;
+            this.stop = stop;
+        }
+    }
+}
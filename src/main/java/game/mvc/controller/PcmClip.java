@@ -0,0 +1,134 @@
+package game.mvc.controller;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import javax.sound.sampled.AudioFormat;
+import javax.sound.sampled.AudioInputStream;
+import javax.sound.sampled.AudioSystem;
+import javax.sound.sampled.UnsupportedAudioFileException;
+
+/**
+ * A sound decoded once into 16-bit PCM at the mixer's sample rate, ready to be mixed by MixerAudioBackend without any
+ * further conversion. Mono sounds stay mono (one sample per frame); anything with more channels is kept as stereo.
+ */
+public class PcmClip {
+
+    private final String name;
+    //interleaved samples, channels per frame
+    private final short[] samples;
+    private final int channels;
+    private final int frames;
+    private final boolean looped;
+
+    private PcmClip(String name, short[] samples, int channels, boolean looped) {
+        this.name = name;
+        this.samples = samples;
+        this.channels = channels;
+        this.frames = samples.length / channels;
+        this.looped = looped;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public short[] getSamples() {
+        return samples;
+    }
+
+    public int getChannels() {
+        return channels;
+    }
+
+    public int getFrames() {
+        return frames;
+    }
+
+    public boolean isLooped() {
+        return looped;
+    }
+
+    //decodes a sound from src/main/resources/sounds (on the classpath) and resamples it to sampleRate
+    public static PcmClip load(String name, float sampleRate) throws IOException, UnsupportedAudioFileException {
+        InputStream audioSrc = PcmClip.class.getResourceAsStream("/sounds/" + name);
+        if (audioSrc == null) throw new IOException("No such sound file exists at /sounds/" + name);
+
+        try (AudioInputStream in = AudioSystem.getAudioInputStream(new BufferedInputStream(audioSrc))) {
+            AudioInputStream pcm = in;
+            AudioFormat format = in.getFormat();
+            //compressed encodings (e.g. u-law) are converted to plain 16-bit PCM by the JDK first
+            if (format.getEncoding() != AudioFormat.Encoding.PCM_SIGNED
+                    && format.getEncoding() != AudioFormat.Encoding.PCM_UNSIGNED) {
+                format = new AudioFormat(format.getSampleRate(), 16, format.getChannels(), true, false);
+                pcm = AudioSystem.getAudioInputStream(format, in);
+            }
+            short[] decoded = toShorts(readAll(pcm), format);
+            int channels = Math.min(2, format.getChannels());
+            short[] samples = resample(decoded, channels, format.getSampleRate(), sampleRate);
+            return new PcmClip(name, samples, channels, name.toLowerCase().endsWith("_loop.wav"));
+        }
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[8192];
+        int read;
+        while ((read = in.read(buffer)) != -1) {
+            out.write(buffer, 0, read);
+        }
+        return out.toByteArray();
+    }
+
+    //8, 16, 24 and 32-bit samples of either sign and byte order become 16-bit signed samples; channels beyond the
+    //first two are dropped
+    private static short[] toShorts(byte[] bytes, AudioFormat format) {
+        int bytesPerSample = (format.getSampleSizeInBits() + 7) / 8;
+        int frameSize = format.getFrameSize();
+        int channels = Math.min(2, format.getChannels());
+        boolean unsigned = format.getEncoding() == AudioFormat.Encoding.PCM_UNSIGNED;
+        boolean bigEndian = format.isBigEndian();
+
+        int frames = bytes.length / frameSize;
+        short[] samples = new short[frames * channels];
+        for (int frame = 0; frame < frames; frame++) {
+            for (int channel = 0; channel < channels; channel++) {
+                int offset = frame * frameSize + channel * bytesPerSample;
+                //the two most significant bytes are all a 16-bit mix needs
+                int msb = bigEndian ? offset : offset + bytesPerSample - 1;
+                int value;
+                if (bytesPerSample == 1) {
+                    value = unsigned ? ((bytes[offset] & 0xFF) - 128) << 8 : bytes[offset] << 8;
+                } else {
+                    int next = bigEndian ? msb + 1 : msb - 1;
+                    value = (bytes[msb] << 8) | (bytes[next] & 0xFF);
+                    if (unsigned) value = (value & 0xFFFF) - 32768;
+                }
+                samples[frame * channels + channel] = (short) value;
+            }
+        }
+        return samples;
+    }
+
+    //linear interpolation between neighbouring frames; the JDK's format converters do not change sample rates
+    private static short[] resample(short[] samples, int channels, float fromRate, float toRate) {
+        if (fromRate == toRate) return samples;
+        int frames = samples.length / channels;
+        double step = fromRate / toRate;
+        int outFrames = (int) (frames / step);
+        short[] out = new short[outFrames * channels];
+        for (int frame = 0; frame < outFrames; frame++) {
+            double position = frame * step;
+            int index = (int) position;
+            double fraction = position - index;
+            int nextIndex = Math.min(index + 1, frames - 1);
+            for (int channel = 0; channel < channels; channel++) {
+                int a = samples[index * channels + channel];
+                int b = samples[nextIndex * channels + channel];
+                out[frame * channels + channel] = (short) Math.round(a + (b - a) * fraction);
+            }
+        }
+        return out;
+    }
+}
@@ -0,0 +1,35 @@
+package game.mvc.controller;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A silent AudioBackend that counts how often each sound was requested. Used by headless runs, where the counts are
+ * a cheap way to see what happened in a game (shots fired, aliens killed, ships lost) without a screen.
+ */
+public class RecordingAudioBackend implements AudioBackend {
+
+    private final Map<String, Integer> playCounts = new TreeMap<>();
+
+    @Override
+    public synchronized void play(String strPath) {
+        playCounts.merge(strPath, 1, Integer::sum);
+    }
+
+    @Override
+    public void stop(String strPath) {
+    }
+
+    public synchronized int getPlayCount(String strPath) {
+        return playCounts.getOrDefault(strPath, 0);
+    }
+
+    //a copy of sound name -> number of plays, sorted by name
+    public synchronized Map<String, Integer> getPlayCounts() {
+        return new TreeMap<>(playCounts);
+    }
+
+    public synchronized void clear() {
+        playCounts.clear();
+    }
+}
@@ -0,0 +1,748 @@
+package game.mvc.controller;
+
+import game.mvc.controller.collision.Broadphase;
+import game.mvc.controller.collision.Hit;
+import game.mvc.controller.collision.Swept;
+import game.mvc.controller.metrics.FrameMetrics;
+import game.mvc.model.*;
+
+import java.awt.*;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+
+/**
+ * The Simulation advances the game state held by the CommandCenter by one fixed tick at a time: alien movement,
+ * moving all sprites, UFO spawns, collisions, level changes and the GameOpsQueue. It knows nothing about windows,
+ * graphics or timing, so the Game class can drive it from its animation thread, and the HeadlessRunner can step it
+ * as fast as the CPU allows.
+ *
+ * A session is deterministic: after reset(seed), the same key events applied in the same ticks always produce the
+ * same game. Key events are therefore never applied when they arrive; submitKey() posts them to an InputMailbox, and
+ * the next tick applies them before anything else happens. This is what InputRecorder and InputReplay rely on. The
+ * arrow keys move the laserCannon for as long as they are held (see isKeyHeld()), so movement does not depend on the
+ * auto-repeat rate of the keyboard.
+ */
+public class Simulation {
+
+    //key-codes
+    public static final int
+            PAUSE = 80, // p key
+            QUIT = 81, // q key
+            LEFT = 37, // rotate left; left arrow
+            RIGHT = 39, // rotate right; right arrow
+            START = 83, // s key
+            FIRE = 32, // space key
+            MUTE = 77; // m-key mute
+
+    //pixels per frame that the laserCannon moves while an arrow key is held
+    public static final int LASER_CANNON_SPEED = 15;
+
+    private boolean gameOverTriggered = false;
+    private long seed;
+
+    //key events waiting for the next tick; filled by the EDT
+    private final InputMailbox mailbox = new InputMailbox();
+    private final InputMailbox.Handler keyHandler = this::handleKey;
+    //bit (keyCode & 63) of held[keyCode >> 6] is set while the key is held down; only key-codes below 256 are tracked
+    private final long[] held = new long[4];
+    //keys that were pressed since the last tick, so that a tap shorter than a tick still moves the laserCannon
+    private final long[] tapped = new long[4];
+    //sub-pixel movement of the laserCannon carried over to the next tick
+    private double laserCannonRemainder;
+    //System.nanoTime() of the oldest key event applied since the last frame was drawn, or 0; see takeInputNanos()
+    private final AtomicLong inputNanos = new AtomicLong();
+    //the tick whose key events are being applied
+    private long inputTick;
+    //at most one of these is set
+    private InputRecorder recorder;
+    private InputReplay replay;
+
+    //broadphase indexes for checkCollisions(); unless the constructor is given one, the implementation is chosen with
+    //the BROADPHASE environment variable
+    private final Broadphase foeIndex;
+    private final Broadphase bunkerIndex;
+    private final FrameMetrics metrics = FrameMetrics.getInstance();
+    //scratch lists reused every frame so that collision detection does not allocate
+    private final List<Movable> foes = new ArrayList<>();
+    private final List<Movable> candidates = new ArrayList<>();
+    //the first hit of the projectile being swept, and the start of its path and of its target's; see sweepBullet()
+    private final Hit hit = new Hit();
+    private final Point start = new Point();
+    private final Point targetStart = new Point();
+    //the foes that were hit this tick, which later bullets pass through: spentPass[slot] == collisionPass for the slot
+    //of each one's handle (see EntityRegistry.slot()). Counting the passes clears the marks of the last one for free.
+    private int[] spentPass = new int[256];
+    private int collisionPass;
+    //how far any foe but the formation moved during this tick
+    private int foeReach;
+    //created once, so that draining the GameOpsQueue does not allocate
+    private final GameOpsQueue.Handler gameOpHandler = this::processGameOp;
+
+    // UFO spawning variables
+    private int nextUFOSpawn;
+
+
+    public Simulation() {
+        this(Broadphase.kindFromEnv());
+    }
+
+    public Simulation(Broadphase.Kind broadphase) {
+        foeIndex = Broadphase.create(broadphase);
+        bunkerIndex = Broadphase.create(broadphase);
+    }
+
+    /**
+     * Starts a new session: seeds Game.R and puts the CommandCenter, the alien group and this Simulation back into
+     * the state they are in when the program starts. Everything that happens afterwards follows from the seed and the
+     * key events.
+     */
+    public synchronized void reset(long seed) {
+        this.seed = seed;
+        //the CommandCenter builds its LaserCannon, which draws random numbers, when it is first used; get that out
+        //of the way before seeding
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        Game.R.setSeed(seed);
+        commandCenter.resetSession();
+        mailbox.clear();
+        Arrays.fill(held, 0);
+        Arrays.fill(tapped, 0);
+        laserCannonRemainder = 0;
+        gameOverTriggered = false;
+        nextUFOSpawn = MysteryUFO.MIN_SPAWN_INTERVAL +
+                Game.R.nextInt(MysteryUFO.MAX_SPAWN_INTERVAL - MysteryUFO.MIN_SPAWN_INTERVAL);
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    //a seed from the SEED environment variable, or a fresh one
+    public static long seedFromEnv() {
+        String strSeed = System.getenv("SEED");
+        try {
+            return strSeed == null ? System.nanoTime() : Long.parseLong(strSeed.trim());
+        } catch (NumberFormatException e) {
+            return System.nanoTime();
+        }
+    }
+
+    //records every key event applied from now on; the recording is finished by stopRecording()
+    public synchronized void startRecording(OutputStream out) throws IOException {
+        recorder = new InputRecorder(out, seed, Game.TICK_RATE, CommandCenter.getInstance().getStartLevel());
+    }
+
+    //writes the end of the recording (the tick count and a checksum of the state) and closes it. Safe to call from a
+    //shutdown hook: it waits for the current tick to finish.
+    public synchronized void stopRecording() {
+        if (recorder == null) return;
+        try {
+            recorder.close(CommandCenter.getInstance().getFrame(), stateChecksum());
+        } catch (IOException e) {
+            System.err.println("Could not finish the input recording: " + e);
+        }
+        recorder = null;
+    }
+
+    //resets to the recording's seed and start level; from now on the recorded key events are applied instead of
+    //submitted ones
+    public synchronized void startReplay(InputReplay replay) {
+        if (replay.getTickRate() != Game.TICK_RATE) {
+            throw new IllegalArgumentException("The recording was made at TICK_RATE=" + replay.getTickRate()
+                    + ", but the game runs at " + Game.TICK_RATE);
+        }
+        reset(replay.getSeed());
+        //the recording's level wins over the LEVEL environment variable
+        CommandCenter.getInstance().setStartLevel(replay.getStartLevel());
+        this.replay = replay;
+    }
+
+    public boolean isReplayFinished() {
+        return replay != null && replay.isFinished(CommandCenter.getInstance().getFrame());
+    }
+
+    //posts a key event for the next tick. There must only be one thread that submits keys (the EDT in the game, the
+    //autopilot in the HeadlessRunner); see InputMailbox.
+    public void submitKey(int keyCode, boolean pressed) {
+        mailbox.offer(keyCode, pressed, System.nanoTime());
+    }
+
+    public boolean isKeyHeld(int keyCode) {
+        return keyCode >= 0 && keyCode < 256 && (held[keyCode >> 6] & 1L << keyCode) != 0;
+    }
+
+    //the System.nanoTime() at which the oldest key event that was applied since the last call was submitted, or 0
+    //if there was none; the render loop calls this after drawing a frame, to measure input latency
+    public long takeInputNanos() {
+        return inputNanos.getAndSet(0);
+    }
+
+    //applies all key events that are due in this tick, then moves the laserCannon for the arrow keys
+    private void applyKeys() {
+        inputTick = CommandCenter.getInstance().getFrame();
+        if (replay != null) {
+            mailbox.clear();
+            try {
+                replay.replayTick(inputTick, this);
+            } catch (IOException e) {
+                System.err.println("Could not read the input recording: " + e);
+                replay = null;
+            }
+        } else {
+            mailbox.drain(keyHandler);
+        }
+        moveLaserCannon();
+    }
+
+    private void handleKey(int keyCode, boolean pressed, long nanos) {
+        if (recorder != null) {
+            try {
+                recorder.record(inputTick, keyCode, pressed);
+            } catch (IOException e) {
+                System.err.println("Could not write the input recording: " + e);
+                recorder = null;
+            }
+        }
+        inputNanos.compareAndSet(0, nanos);
+        applyKey(keyCode, pressed);
+    }
+
+    //what the keys do; see Game's KeyListener methods
+    void applyKey(int keyCode, boolean pressed) {
+        boolean tracked = keyCode >= 0 && keyCode < 256;
+        if (pressed) {
+            //presses of a key that is already held are the keyboard's auto-repeat, and mean nothing
+            if (tracked && !isKeyHeld(keyCode)) {
+                held[keyCode >> 6] |= 1L << keyCode;
+                tapped[keyCode >> 6] |= 1L << keyCode;
+            }
+            return;
+        }
+        if (tracked) held[keyCode >> 6] &= ~(1L << keyCode);
+
+        if (keyCode == START && CommandCenter.getInstance().isGameOver()) {
+            startGame();
+            return;
+        }
+
+        switch (keyCode) {
+            case FIRE:
+                fire();
+                break;
+            case PAUSE:
+                CommandCenter.getInstance().setPaused(!CommandCenter.getInstance().isPaused());
+                System.out.println("Game Paused");
+                break;
+            case MUTE:
+                //if music is currently playing, then stop
+                if (CommandCenter.getInstance().isThemeMusic()) {
+                    SoundLoader.stopSound("spaceinvaders1.wav");
+                    System.out.println("Music Muted");
+                } else { //else not playing, then play
+                    SoundLoader.playSound("spaceinvaders1.wav");
+                    System.out.println("Music Playing");
+                }
+                //toggle the boolean switch
+                CommandCenter.getInstance().setThemeMusic(!CommandCenter.getInstance().isThemeMusic());
+                break;
+            default:
+                break;
+        }
+    }
+
+    //starts a new game; see CommandCenter.initGame()
+    private void startGame() {
+        gameOverTriggered = false;
+        nextUFOSpawn = MysteryUFO.MIN_SPAWN_INTERVAL +
+                Game.R.nextInt(MysteryUFO.MAX_SPAWN_INTERVAL - MysteryUFO.MIN_SPAWN_INTERVAL);
+        CommandCenter.getInstance().initGame();
+    }
+
+    //moves the laserCannon LASER_CANNON_SPEED pixels per frame (see Game.TICK_SCALE) towards the arrow key that is
+    //held, or that was tapped since the last tick
+    private void moveLaserCannon() {
+        int direction = (isArrowDown(RIGHT) ? 1 : 0) - (isArrowDown(LEFT) ? 1 : 0);
+        Arrays.fill(tapped, 0);
+        if (direction == 0) {
+            laserCannonRemainder = 0;
+            return;
+        }
+
+        double dx = laserCannonRemainder + direction * LASER_CANNON_SPEED * Game.TICK_SCALE;
+        int pixels = (int) dx;
+        laserCannonRemainder = dx - pixels;
+        LaserCannon laserCannon = CommandCenter.getInstance().getLaserCannon();
+        laserCannon.setCenter(new Point(laserCannon.getCenter().x + pixels, laserCannon.getCenter().y));
+    }
+
+    private boolean isArrowDown(int keyCode) {
+        return isKeyHeld(keyCode) || (tapped[keyCode >> 6] & 1L << keyCode) != 0;
+    }
+
+    private void fire() {
+        CommandCenter.getInstance().getOpsQueue().enqueue(
+                Bullet.acquire(CommandCenter.getInstance().getLaserCannon()), GameOp.Action.ADD);
+    }
+
+    //advances the game by one fixed simulation step; every phase is timed, see FrameMetrics
+    public synchronized void tick() {
+        long tickStart = System.nanoTime();
+        long start = tickStart;
+        CommandCenter.getInstance().beginTick();
+
+        applyKeys();
+        start = metrics.lap(FrameMetrics.Phase.INPUT, start);
+
+        // Update alien group movement BEFORE moving everything else
+        updateAlienGroup();
+        start = metrics.lap(FrameMetrics.Phase.ALIENS, start);
+
+        moveMovables();
+        start = metrics.lap(FrameMetrics.Phase.MOVE, start);
+
+        checkUFOSpawn();
+        start = metrics.lap(FrameMetrics.Phase.UFO, start);
+
+        checkCollisions();
+        start = metrics.lap(FrameMetrics.Phase.COLLISIONS, start);
+        checkNewLevel();
+        start = metrics.lap(FrameMetrics.Phase.LEVEL, start);
+//            checkFloaters();
+        //this method will execute addToGame() and removeFromGame() callbacks on Movable objects
+        processGameOpsQueue();
+        metrics.lap(FrameMetrics.Phase.OPS_QUEUE, start);
+        //keep track of the frame for development purposes
+        CommandCenter.getInstance().incrementFrame();
+
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        metrics.recordCounts(commandCenter.getMovFriends().size(), commandCenter.getMovFoes().size(),
+                commandCenter.getMovDebris().size(), commandCenter.getMovFloaters().size());
+        metrics.lap(FrameMetrics.Phase.TICK, tickStart);
+    }
+
+    /**
+     * A hash of the game state that matters for determinism: counters, score, and the class and position of every
+     * Movable (plus the cells of every bunker). Two runs that agree on this after the same tick almost certainly played
+     * out identically.
+     */
+    public synchronized long stateChecksum() {
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        long hash = 17;
+        hash = mix(hash, commandCenter.getFrame());
+        hash = mix(hash, commandCenter.getLevel());
+        hash = mix(hash, commandCenter.getScore());
+        hash = mix(hash, commandCenter.getNumlaserCannons());
+        hash = mix(hash, nextUFOSpawn);
+        for (long keys : held) hash = mix(hash, keys);
+        hash = mixTeam(hash, commandCenter.getMovDebris());
+        hash = mixTeam(hash, commandCenter.getMovFloaters());
+        hash = mixTeam(hash, commandCenter.getMovFoes());
+        hash = mixTeam(hash, commandCenter.getMovFriends());
+        return hash;
+    }
+
+    private static long mixTeam(long hash, List<Movable> team) {
+        hash = mix(hash, team.size());
+        for (Movable mov : team) {
+            hash = mix(hash, mov.getClass().getName().hashCode());
+            hash = mix(hash, mov.getCenter().x);
+            hash = mix(hash, mov.getCenter().y);
+            if (mov instanceof Bunker) {
+                for (long row : ((Bunker) mov).getCells()) hash = mix(hash, row);
+            } else if (mov instanceof AlienFormation) {
+                for (long word : ((AlienFormation) mov).getAlive()) hash = mix(hash, word);
+            }
+        }
+        return hash;
+    }
+
+    private static long mix(long hash, long value) {
+        return hash * 31 + value;
+    }
+
+    //this method causes all sprites to move, but only while playing and not paused.
+    private void moveMovables() {
+        if (CommandCenter.getInstance().isGameOver() || CommandCenter.getInstance().isPaused()) return;
+
+        moveTeams(CommandCenter.getInstance().getMovDebris(),
+                CommandCenter.getInstance().getMovFloaters(),
+                CommandCenter.getInstance().getMovFoes(),
+                CommandCenter.getInstance().getMovFriends());
+    }
+
+    @SafeVarargs
+    private final void moveTeams(List<Movable>... teams) {
+        for (List<Movable> team : teams) {
+            for (Movable mov : team) {
+                mov.move();
+            }
+        }
+    }
+
+    private void updateAlienGroup() {
+        AlienFormation formation = CommandCenter.getInstance().getFormation();
+        if (formation != null) formation.update();
+    }
+
+    private void checkUFOSpawn() {
+        // Only spawn UFO if game is not paused and player is alive
+        if (!CommandCenter.getInstance().isPaused() && !CommandCenter.getInstance().isGameOver()) {
+            nextUFOSpawn -= CommandCenter.getInstance().getElapsedFrames();
+
+            if (nextUFOSpawn <= 0) {
+                // Check if there's already a UFO on screen
+                if (!CommandCenter.getInstance().isUFOPresent()) {
+                    CommandCenter.getInstance().getOpsQueue().enqueue(new MysteryUFO(), GameOp.Action.ADD);
+
+                    // Set next spawn time (randomized)
+                    nextUFOSpawn = MysteryUFO.MIN_SPAWN_INTERVAL +
+                            Game.R.nextInt(MysteryUFO.MAX_SPAWN_INTERVAL - MysteryUFO.MIN_SPAWN_INTERVAL);
+                }
+            }
+        }
+    }
+
+    /*
+    TODO The following two methods are an example of the Command design pattern. This approach involves deferring
+    mutations to collections (linked lists of Movables) while iterating over them, and then processing the mutations
+    later (in the processGameOpsQueue() method below). The Command design pattern decouples the request for an
+    operation from the  execution of the operation itself. We do this because mutating a data structure while iterating it
+    is dangerous and may lead to null-pointer or array-index-out-of-bounds exceptions, or other erroneous behavior.
+     */
+
+    //package-private (like processGameOpsQueue()) so that the benchmarks can call it on its own
+    void checkCollisions() {
+
+        //Bullets move 35 pixels a frame, and a tick stands for several frames at a low TICK_RATE, which is further
+        //than an alien or a bunker cell is wide; tested only where they are at the end of the tick, they would tunnel
+        //through. So every bullet is swept from where it was at the start of the tick to where it is now, against
+        //every target on its way (see Swept), and only its first hit counts. The broadphase indexes are rebuilt once
+        //per tick, and queried with a circle around the whole path.
+        CommandCenter commandCenter = CommandCenter.getInstance();
+
+        //the alien formation does its own hit testing (see AlienFormation.sweep()), so it stays out of the
+        //broadphase, where its huge bounding box would only get in the way
+        AlienFormation formation = commandCenter.getFormation();
+        foes.clear();
+        foeReach = 0;
+        for (Movable movFoe : commandCenter.getMovFoes()) {
+            if (movFoe == formation) continue;
+            foes.add(movFoe);
+            //the foes are indexed where they are now, so a path has to be queried with room for how far they moved
+            movFoe.getPreviousCenter(targetStart);
+            foeReach = Math.max(foeReach, (int) Math.ceil(targetStart.distance(movFoe.getCenter())));
+        }
+        foeIndex.rebuild(foes);
+        // Index the bunkers once; both player bullets and alien bullets are tested against them
+        bunkerIndex.rebuild(commandCenter.getBunkers());
+        collisionPass++;
+
+        // Player bullets: the first alien, other foe (the UFO, an alien bullet) or bunker on the path
+        TypeIndex<Bullet> bullets = commandCenter.getBullets();
+        for (int i = 0; i < bullets.size(); i++) {
+            sweepBullet(bullets.get(i), formation);
+        }
+
+        //the other friends (the laserCannon) are tested where they are now, against the aliens and the UFO; the
+        //alien bullets are swept against the laserCannon below
+        Point pntFriendCenter, pntFoeCenter;
+        int radFriend, radFoe;
+        for (Movable movFriend : commandCenter.getMovFriends()) {
+            if (movFriend instanceof Bullet) continue;
+            pntFriendCenter = movFriend.getCenter();
+            radFriend = movFriend.getRadius();
+
+            if (formation != null) {
+                int cell = formation.hit(pntFriendCenter.x, pntFriendCenter.y, radFriend);
+                if (cell != -1) {
+                    //enqueue the friend, and destroy the alien it hit
+                    commandCenter.getOpsQueue().enqueue(movFriend, GameOp.Action.REMOVE);
+                    formation.kill(cell);
+                }
+            }
+
+            candidates.clear();
+            foeIndex.query(pntFriendCenter.x, pntFriendCenter.y, radFriend, candidates);
+            for (Movable movFoe : candidates) {
+                if (movFoe instanceof AlienBullet) continue;
+
+                pntFoeCenter = movFoe.getCenter();
+                radFoe = movFoe.getRadius();
+
+                //detect collision
+                if (pntFriendCenter.distance(pntFoeCenter) < (radFriend + radFoe)) {
+                    //enqueue the friend
+                    commandCenter.getOpsQueue().enqueue(movFriend, GameOp.Action.REMOVE);
+                    //enqueue the foe
+                    commandCenter.getOpsQueue().enqueue(movFoe, GameOp.Action.REMOVE);
+                }
+            }//end inner for
+        }//end outer for
+
+        // Alien bullets: the laserCannon or the first bunker on the path. While the laserCannon is waiting to respawn
+        // (off-screen) it is left out, and so is the game over check below, which measures from where it is
+        LaserCannon laserCannon = commandCenter.getLaserCannon();
+        boolean respawning = laserCannon.getRespawnTimer() > 0;
+        TypeIndex<AlienBullet> alienBullets = commandCenter.getAlienBullets();
+        for (int i = 0; i < alienBullets.size(); i++) {
+            sweepAlienBullet(alienBullets.get(i), respawning ? null : laserCannon);
+        }
+
+        // Check if any alien has reached the laser cannon level (game over condition)
+        if (!respawning && !gameOverTriggered && formation != null && formation.getAliveCount() > 0) {
+            int laserCannonY = laserCannon.getCenter().y;
+            if (formation.getBottomY() >= laserCannonY - 30) { // 30 pixel buffer
+                // Alien reached the bottom - Game Over!
+                gameOverTriggered = true;
+                CommandCenter.getInstance().setNumlaserCannons(0); // Triggers game over
+                SoundLoader.playSound("kapow.wav");
+            }
+        }
+
+
+
+    }//end meth
+
+    //removes the bullet at its first hit along its path this tick, and destroys what it hit
+    private void sweepBullet(Bullet bullet, AlienFormation formation) {
+        Point end = bullet.getCenter();
+        bullet.getPreviousCenter(start);
+        int radius = bullet.getRadius();
+        hit.clear();
+
+        if (formation != null) formation.sweep(start.x, start.y, end.x, end.y, radius, hit);
+
+        queryPath(foeIndex, start, end, radius + foeReach);
+        for (Movable movFoe : candidates) {
+            //two bullets that hit the same foe in one tick: the second flies on
+            if (isSpent(movFoe)) continue;
+            //the bullet's path relative to the foe, which moved as well
+            movFoe.getPreviousCenter(targetStart);
+            Point foeEnd = movFoe.getCenter();
+            hit.offer(Swept.segmentCircle(start.x - targetStart.x, start.y - targetStart.y, end.x - foeEnd.x,
+                    end.y - foeEnd.y, 0, 0, radius + movFoe.getRadius()), movFoe, -1);
+        }
+
+        sweepBunkers(start, end, radius);
+        if (!hit.isFound()) return;
+
+        CommandCenter.getInstance().getOpsQueue().enqueue(bullet, GameOp.Action.REMOVE);
+        Movable target = hit.getTarget();
+        if (target == formation) {
+            formation.kill(hit.getPart());
+        } else if (target instanceof Bunker) {
+            ((Bunker) target).damage(hit.getPart());
+        } else {
+            CommandCenter.getInstance().getOpsQueue().enqueue(target, GameOp.Action.REMOVE);
+            spend(target);
+        }
+    }
+
+    //removes the alien bullet at its first hit along its path this tick, and destroys what it hit. laserCannon is
+    //null while it cannot be hit.
+    private void sweepAlienBullet(AlienBullet alienBullet, LaserCannon laserCannon) {
+        //already shot down by a player bullet
+        if (isSpent(alienBullet)) return;
+        Point end = alienBullet.getCenter();
+        alienBullet.getPreviousCenter(start);
+        int radius = alienBullet.getRadius();
+        hit.clear();
+
+        if (laserCannon != null) {
+            laserCannon.getPreviousCenter(targetStart);
+            Point laserCannonEnd = laserCannon.getCenter();
+            hit.offer(Swept.segmentCircle(start.x - targetStart.x, start.y - targetStart.y, end.x - laserCannonEnd.x,
+                    end.y - laserCannonEnd.y, 0, 0, radius + laserCannon.getRadius()), laserCannon, -1);
+        }
+
+        sweepBunkers(start, end, radius);
+        if (!hit.isFound()) return;
+
+        // Remove the bullet, and the laserCannon or the bunker cells it hit
+        CommandCenter.getInstance().getOpsQueue().enqueue(alienBullet, GameOp.Action.REMOVE);
+        if (hit.getTarget() == laserCannon) {
+            CommandCenter.getInstance().getOpsQueue().enqueue(laserCannon, GameOp.Action.REMOVE);
+        } else {
+            ((Bunker) hit.getTarget()).damage(hit.getPart());
+        }
+    }
+
+    private void spend(Movable mov) {
+        int slot = EntityRegistry.slot(mov.getHandle());
+        if (slot >= spentPass.length) spentPass = Arrays.copyOf(spentPass, Math.max(slot + 1, spentPass.length * 2));
+        spentPass[slot] = collisionPass;
+    }
+
+    private boolean isSpent(Movable mov) {
+        int slot = EntityRegistry.slot(mov.getHandle());
+        return slot < spentPass.length && spentPass[slot] == collisionPass;
+    }
+
+    //offers the first bunker cell on the path of a bullet to hit; see Bunker.sweep()
+    private void sweepBunkers(Point start, Point end, int radius) {
+        queryPath(bunkerIndex, start, end, radius);
+        for (Movable movBunker : candidates) {
+            ((Bunker) movBunker).sweep(start.x, start.y, end.x, end.y, radius, hit);
+        }
+    }
+
+    //replaces the candidates with the Movables of the index that a circle of the given radius might touch anywhere
+    //on its way from start to end
+    private void queryPath(Broadphase index, Point start, Point end, int radius) {
+        candidates.clear();
+        int halfLength = (int) Math.ceil(start.distance(end) / 2);
+        //the midpoint is rounded down, hence the extra pixel
+        index.query((start.x + end.x) / 2, (start.y + end.y) / 2, halfLength + radius + 1, candidates);
+    }
+
+
+    //This method adds and removes movables to/from their respective lists.
+    void processGameOpsQueue() {
+
+        //deferred mutation: these operations are done AFTER we have completed our collision detection to avoid
+        // mutating the movable lists while iterating them above. Operations that the callbacks enqueue are processed
+        // in the same drain.
+        CommandCenter.getInstance().getOpsQueue().drain(gameOpHandler);
+    }
+
+    private void processGameOp(Movable mov, int enqueuedHandle, GameOp.Action action) {
+
+        //given team, determine which list this object will be added-to or removed-from
+        EntityList list;
+        switch (mov.getTeam()) {
+            case FOE:
+                list = CommandCenter.getInstance().getMovFoes();
+                break;
+            case FRIEND:
+                list = CommandCenter.getInstance().getMovFriends();
+                break;
+            case FLOATER:
+                list = CommandCenter.getInstance().getMovFloaters();
+                break;
+            case DEBRIS:
+            default:
+                list = CommandCenter.getInstance().getMovDebris();
+        }
+
+        //pass the appropriate list from above
+        //this block will execute the addToGame() or removeFromGame() callbacks in the Movable models.
+        int handle = mov.getHandle();
+        //a REMOVE for a sprite that has since left the game (and may be back from its pool) is stale
+        if (action == GameOp.Action.REMOVE && enqueuedHandle != EntityRegistry.NO_HANDLE
+                && enqueuedHandle != handle) return;
+        if (action == GameOp.Action.ADD) {
+            mov.addToGame(list);
+        } else if (action == GameOp.Action.REMOVE) {
+            mov.removeFromGame(list);
+        }
+
+        //the callbacks decide whether the Movable really enters or leaves its list (the laserCannon never leaves,
+        //a second REMOVE finds nothing), so the typed indexes follow the handle rather than the action
+        if (mov.getHandle() != handle) {
+            if (handle != EntityRegistry.NO_HANDLE) CommandCenter.getInstance().indexRemoved(mov, handle);
+            if (mov.getHandle() != EntityRegistry.NO_HANDLE) CommandCenter.getInstance().indexAdded(mov, mov.getHandle());
+        }
+    }
+
+
+//    private void spawnShieldFloater() {
+//
+//        if (CommandCenter.getInstance().getFrame() % ShieldFloater.SPAWN_SHIELD_FLOATER == 0) {
+//            CommandCenter.getInstance().getOpsQueue().enqueue(new ShieldFloater(), GameOp.Action.ADD);
+//        }
+//    }
+
+//    private void spawnNukeFloater() {
+//
+//        if (CommandCenter.getInstance().getFrame() % NukeFloater.SPAWN_NUKE_FLOATER == 0) {
+//            CommandCenter.getInstance().getOpsQueue().enqueue(new NukeFloater(), GameOp.Action.ADD);
+//        }
+//    }
+
+
+//    //this method spawns new Large (0) Asteroids
+//    private void spawnBigAsteroids(int num) {
+//
+//        while (num-- > 0) {
+//            //Asteroids with size of zero are big
+//            CommandCenter.getInstance().getOpsQueue().enqueue(new Asteroid(0), GameOp.Action.ADD);
+//
+//        }
+//    }
+
+    
+
+    private boolean isLevelClear() {
+        //if there are no more Aliens on the screen; the formation removes itself once its last alien is destroyed
+        return CommandCenter.getInstance().getFormation() == null;
+    }
+
+    private void checkNewLevel() {
+
+        //short-circuit if level not yet cleared
+        if (!isLevelClear()) return;
+
+        //currentLevel will be zero at beginning of game
+        int level = CommandCenter.getInstance().getLevel();
+        //award some points for having cleared the previous level
+        CommandCenter.getInstance().setScore(CommandCenter.getInstance().getScore() + (10_000L * level));
+
+        //center the laserCannon at each level-clear
+        CommandCenter.getInstance().getLaserCannon().setCenter(new Point(Game.DIM.width / 2, Game.DIM.height / 2));
+        CommandCenter.getInstance().getLaserCannon().markJumped();
+
+        //Set universe according to mod of level - cycle through universes
+        int ordinal = level % CommandCenter.Universe.values().length;
+        CommandCenter.Universe key = CommandCenter.Universe.values()[ordinal];
+        CommandCenter.getInstance().setUniverse(key);
+        //players will need radar in the big universes, but they can still toggle it off
+        CommandCenter.getInstance().setRadar(ordinal > 1);
+
+        //bump the level up
+        level = level + 1;
+        CommandCenter.getInstance().setLevel(level);
+       
+        //spawn the alien formation
+        spawnAlienFormation();
+
+        // Spawn 4 bunkers
+        spawnBunkers();
+
+        //make laserCannon invincible momentarily in case new asteroids spawn on top of him, and give player
+        //time to adjust to new universe and new asteroids in game space.
+        CommandCenter.getInstance().getLaserCannon().setShield(LaserCannon.INITIAL_SPAWN_TIME);
+        //show "Level: [X] UNIVERSE" in middle of screen
+        CommandCenter.getInstance().getLaserCannon().setShowLevel(LaserCannon.INITIAL_SPAWN_TIME);
+
+
+    }
+    
+    // Alien formation - 55 aliens
+    private void spawnAlienFormation() {
+        final int ROWS = 5;
+        final int COLS = 11;
+        final int START_X = 150; // Left margin
+        final int START_Y = 100; // Top margin
+
+        // Row 0: Orange (40 points), rows 1-2: Lime (20 points), rows 3-4: Pink (10 points); see AlienFormation
+        CommandCenter.getInstance().getOpsQueue().enqueue(
+                new AlienFormation(ROWS, COLS, START_X, START_Y), GameOp.Action.ADD);
+    }
+
+    private void spawnBunkers() {
+        int bunkerY = Game.DIM.height - 200; // above player
+        int screenWidth = Game.DIM.width;
+        int spacing = screenWidth / 5; // Divide screen into 5 sections for 4 bunkers
+
+        // Create 4 bunkers evenly spaced
+        for (int i = 1; i <= 4; i++) {
+            int x = spacing * i;
+            CommandCenter.getInstance().getOpsQueue().enqueue(new Bunker(x, bunkerY), GameOp.Action.ADD);
+        }
+    }
+
+}
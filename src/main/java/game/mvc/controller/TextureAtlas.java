@@ -0,0 +1,99 @@
+package game.mvc.controller;
+
+import game.mvc.model.prime.AtlasRegion;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.*;
+import java.util.List;
+
+/**
+ * Packs images into one atlas image, in the display's native translucent format, and places the AtlasRegion of each
+ * image in it. ImageIO decodes PNGs into whatever image type the file suggests, which is rarely the format of the
+ * screen, so every drawImage() of such an image goes through a slow conversion loop; an atlas made with
+ * GraphicsConfiguration.createCompatibleImage() is converted once, here, and can be kept in video memory as a whole.
+ * Without a screen (headless) the atlas is TYPE_INT_ARGB_PRE, which the software loops blend fastest.
+ *
+ * Images are placed on shelves, tallest first, with a transparent pixel of padding around each one so that scaling
+ * never samples a neighbour.
+ */
+public final class TextureAtlas {
+
+    //the atlas is this wide, and as tall as its shelves need
+    static final int WIDTH = 1024;
+    private static final int PADDING = 1;
+
+    private final BufferedImage image;
+    //name -> {x, y, width, height} in the atlas
+    private final Map<String, int[]> placements = new HashMap<>();
+
+    private TextureAtlas(Map<String, BufferedImage> images) {
+        List<Map.Entry<String, BufferedImage>> entries = new ArrayList<>(images.entrySet());
+        entries.sort((a, b) -> b.getValue().getHeight() - a.getValue().getHeight());
+
+        //first pass: place every image, and find out how tall the atlas has to be
+        int[] xs = new int[entries.size()];
+        int[] ys = new int[entries.size()];
+        int x = 0, y = 0, shelfHeight = 0;
+        for (int i = 0; i < entries.size(); i++) {
+            BufferedImage img = entries.get(i).getValue();
+            int width = img.getWidth() + 2 * PADDING;
+            if (width > WIDTH) throw new IllegalArgumentException(entries.get(i).getKey() + " is too wide for the atlas");
+            if (x + width > WIDTH) {
+                x = 0;
+                y += shelfHeight;
+                shelfHeight = 0;
+            }
+            xs[i] = x + PADDING;
+            ys[i] = y + PADDING;
+            x += width;
+            shelfHeight = Math.max(shelfHeight, img.getHeight() + 2 * PADDING);
+        }
+
+        //second pass: copy the images in
+        image = createImage(WIDTH, Math.max(1, y + shelfHeight));
+        Graphics2D g2d = image.createGraphics();
+        try {
+            g2d.setComposite(AlphaComposite.Src);
+            for (int i = 0; i < entries.size(); i++) {
+                Map.Entry<String, BufferedImage> entry = entries.get(i);
+                BufferedImage img = entry.getValue();
+                g2d.drawImage(img, xs[i], ys[i], null);
+                placements.put(entry.getKey(), new int[]{xs[i], ys[i], img.getWidth(), img.getHeight()});
+            }
+        } finally {
+            g2d.dispose();
+        }
+    }
+
+    //packs the images, keyed by any name, into a new atlas
+    public static TextureAtlas pack(Map<String, BufferedImage> images) {
+        return new TextureAtlas(images);
+    }
+
+    //places the region in this atlas, if an image was packed under its name; returns false if none was
+    public boolean resolve(AtlasRegion region) {
+        int[] placement = placements.get(region.getName());
+        if (placement == null) return false;
+        region.resolve(image, placement[0], placement[1], placement[2], placement[3]);
+        return true;
+    }
+
+    public BufferedImage getImage() {
+        return image;
+    }
+
+    //compatible with the default screen, if there is one
+    private static BufferedImage createImage(int width, int height) {
+        if (!GraphicsEnvironment.isHeadless()) {
+            try {
+                GraphicsConfiguration gc = GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice()
+                        .getDefaultConfiguration();
+                return gc.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+            } catch (HeadlessException e) {
+                //no screen after all
+            }
+        }
+        return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+    }
+}
@@ -0,0 +1,60 @@
+package game.mvc.controller;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Hands the latest of a series of values (the RenderSnapshots) from one producer thread to one consumer thread
+ * without either of them ever waiting for the other. There are three buffers: the producer writes into one, the
+ * consumer reads from another, and the third sits in the middle, holding the latest value that was published. Both
+ * sides swap their buffer with the middle one in a single atomic operation: publish() always, take() only if
+ * something was published since its last take(). The producer may overwrite values the consumer never saw, which is
+ * the point: the consumer always gets the newest one.
+ */
+public class TripleBuffer<T> {
+
+    //set in middle when the buffer in the middle was published and not taken yet
+    private static final int FRESH = 4;
+
+    private final Object[] buffers = new Object[3];
+    //the buffer index in the middle, plus FRESH
+    private final AtomicInteger middle = new AtomicInteger(1);
+    //owned by the producer
+    private int writeIndex = 0;
+    //owned by the consumer
+    private int readIndex = 2;
+
+    public TripleBuffer(Supplier<T> factory) {
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = factory.get();
+        }
+    }
+
+    //producer side: the buffer to fill before the next publish()
+    @SuppressWarnings("unchecked")
+    public T getWriteBuffer() {
+        return (T) buffers[writeIndex];
+    }
+
+    /**
+     * Producer side: makes the write buffer the latest value, and takes another buffer to write into. Returns true if
+     * that buffer is the value published before, which the consumer never took; the producer may still read it.
+     */
+    public boolean publish() {
+        int previous = middle.getAndSet(writeIndex | FRESH);
+        writeIndex = previous & ~FRESH;
+        return (previous & FRESH) != 0;
+    }
+
+    /**
+     * Consumer side: the latest published value. It is the same buffer as the last time, unchanged, if nothing was
+     * published since; it is not touched by the producer until the next take().
+     */
+    @SuppressWarnings("unchecked")
+    public T take() {
+        if ((middle.get() & FRESH) != 0) {
+            readIndex = middle.getAndSet(readIndex) & ~FRESH;
+        }
+        return (T) buffers[readIndex];
+    }
+}
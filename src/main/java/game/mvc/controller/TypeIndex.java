@@ -0,0 +1,89 @@
+package game.mvc.controller;
+
+import game.mvc.model.Movable;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.RandomAccess;
+
+/**
+ * A secondary index over the team lists: every Movable of one type that is currently in the game, whatever team list
+ * holds it. CommandCenter keeps one per type that the Simulation asks about every tick (bullets, bunkers, the alien
+ * formation, the UFO), so those questions cost O(1) or O(k) instead of a pass over a whole team with instanceof.
+ *
+ * The index is maintained by processGameOpsQueue() through CommandCenter.indexAdded() and indexRemoved(), and it is
+ * read-only to everybody else. Like EntityList it is a dense array with swap-remove, keyed by the slot of the
+ * Movable's handle.
+ */
+public class TypeIndex<T extends Movable> extends AbstractList<T> implements RandomAccess {
+
+    private final Class<T> type;
+    private Movable[] items = new Movable[16];
+    private int size;
+    //slot of a handle -> index in items, or -1
+    private int[] positions = new int[256];
+
+    TypeIndex(Class<T> type) {
+        this.type = type;
+        Arrays.fill(positions, -1);
+    }
+
+    boolean accepts(Movable mov) {
+        return type.isInstance(mov);
+    }
+
+    @Override
+    public T get(int index) {
+        if (index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return type.cast(items[index]);
+    }
+
+    //the first element, or null if there is none; handy for types that are in the game at most once
+    public T first() {
+        return size == 0 ? null : type.cast(items[0]);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    void put(Movable mov, int handle) {
+        int slot = EntityRegistry.slot(handle);
+        if (slot >= positions.length) {
+            int old = positions.length;
+            positions = Arrays.copyOf(positions, Math.max(slot + 1, old * 2));
+            Arrays.fill(positions, old, positions.length, -1);
+        }
+        if (positions[slot] != -1) return;
+        if (size == items.length) items = Arrays.copyOf(items, size * 2);
+        positions[slot] = size;
+        items[size++] = mov;
+        modCount++;
+    }
+
+    //handle is the one the Movable had while it was in the game; it has been released by now
+    void drop(int handle) {
+        int slot = EntityRegistry.slot(handle);
+        if (slot >= positions.length || positions[slot] == -1) return;
+        int index = positions[slot];
+        positions[slot] = -1;
+        int last = --size;
+        if (index != last) {
+            Movable moved = items[last];
+            items[index] = moved;
+            positions[EntityRegistry.slot(moved.getHandle())] = index;
+        }
+        items[last] = null;
+        modCount++;
+    }
+
+    @Override
+    public void clear() {
+        //the team lists may have been cleared first, so the handles of the items cannot be trusted here
+        Arrays.fill(positions, -1);
+        Arrays.fill(items, 0, size, null);
+        size = 0;
+        modCount++;
+    }
+}
@@ -0,0 +1,53 @@
+package game.mvc.controller.collision;
+
+import game.mvc.model.Movable;
+
+import java.util.List;
+
+/**
+ * A Broadphase indexes a set of Movables by position once per frame, and then answers "which of those Movables
+ * might overlap this circle?" queries. It only returns candidates; the exact (narrow-phase) distance test is still
+ * done by the caller in Game.checkCollisions().
+ *
+ * Every implementation treats a Movable as the axis-aligned box around its center and radius, so a candidate list
+ * is always a superset of the Movables that actually touch the query circle.
+ */
+public interface Broadphase {
+
+    //the implementations that can be selected with the BROADPHASE environment variable
+    enum Kind {GRID, SAP, BRUTE}
+
+    //drop everything indexed in the previous frame and index the targets for this frame
+    void rebuild(List<? extends Movable> targets);
+
+    //append every indexed Movable whose box overlaps the box of the circle (x, y, radius) to out.
+    //Each candidate is appended at most once.
+    void query(int x, int y, int radius, List<Movable> out);
+
+    //number of Movables currently indexed
+    int size();
+
+    static Broadphase create(Kind kind) {
+        switch (kind) {
+            case SAP:
+                return new SweepAndPruneBroadphase();
+            case BRUTE:
+                return new BruteForceBroadphase();
+            case GRID:
+            default:
+                return new SpatialHashBroadphase(SpatialHashBroadphase.DEFAULT_CELL_SIZE);
+        }
+    }
+
+    //reads the BROADPHASE environment variable (grid, sap, or brute) and falls back to the spatial hash
+    static Kind kindFromEnv() {
+        String strKind = System.getenv("BROADPHASE");
+        if (strKind == null) return Kind.GRID;
+        try {
+            return Kind.valueOf(strKind.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return Kind.GRID;
+        }
+    }
+
+}
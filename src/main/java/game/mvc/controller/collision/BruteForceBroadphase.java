@@ -0,0 +1,42 @@
+package game.mvc.controller.collision;
+
+import game.mvc.model.Movable;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reference Broadphase: no spatial structure at all, every query walks every target. This is the O(N) per query
+ * behavior that checkCollisions() used to have. It is kept so that the faster implementations can be compared
+ * against it (they must return exactly the same candidates), and selected at runtime with BROADPHASE=brute.
+ */
+public class BruteForceBroadphase implements Broadphase {
+
+    private final List<Movable> targets = new ArrayList<>();
+
+    @Override
+    public void rebuild(List<? extends Movable> targets) {
+        this.targets.clear();
+        this.targets.addAll(targets);
+    }
+
+    @Override
+    public void query(int x, int y, int radius, List<Movable> out) {
+        for (Movable mov : targets) {
+            if (overlaps(mov, x, y, radius)) out.add(mov);
+        }
+    }
+
+    @Override
+    public int size() {
+        return targets.size();
+    }
+
+    //box-vs-box test shared by all implementations, so they agree on what a candidate is
+    static boolean overlaps(Movable mov, int x, int y, int radius) {
+        Point center = mov.getCenter();
+        int reach = mov.getRadius() + radius;
+        return Math.abs(center.x - x) <= reach && Math.abs(center.y - y) <= reach;
+    }
+}
@@ -0,0 +1,55 @@
+package game.mvc.controller.collision;
+
+import game.mvc.model.Movable;
+
+/**
+ * The earliest hit found so far along the path of one projectile: when it happens (the fraction of the tick, see
+ * Swept), the Movable that is hit, and which part of it, for the Movables that are grids of parts (the cell of an
+ * AlienFormation or a Bunker; -1 for the others). Every target on the path offers its hit, and only the first one is
+ * kept, so the caller can apply that one and ignore whatever the projectile would have hit after it.
+ *
+ * One Hit is reused for every projectile, so that collision detection does not allocate.
+ */
+public final class Hit {
+
+    private double time;
+    private Movable target;
+    private int part;
+
+    public Hit() {
+        clear();
+    }
+
+    //forgets the hit, for the next projectile
+    public void clear() {
+        time = Double.MAX_VALUE;
+        target = null;
+        part = -1;
+    }
+
+    //keeps the hit if it happens before the one found so far. time may be Swept.MISS, which is ignored.
+    public void offer(double time, Movable target, int part) {
+        if (time == Swept.MISS || time >= this.time) return;
+        this.time = time;
+        this.target = target;
+        this.part = part;
+    }
+
+    public boolean isFound() {
+        return target != null;
+    }
+
+    //the time of the hit, or Double.MAX_VALUE while there is none; a target that cannot be reached before this can
+    //be skipped
+    public double getTime() {
+        return time;
+    }
+
+    public Movable getTarget() {
+        return target;
+    }
+
+    public int getPart() {
+        return part;
+    }
+}
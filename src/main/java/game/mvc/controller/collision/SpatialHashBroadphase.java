@@ -0,0 +1,120 @@
+package game.mvc.controller.collision;
+
+import game.mvc.model.Movable;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Uniform spatial hash. The plane is cut into square cells of cellSize pixels, and every target is filed under each
+ * cell its box touches. Cell coordinates are hashed into a fixed table, so sprites that wander off-screen (the
+ * MysteryUFO enters at x = -50, the LaserCannon hides at -1000 while respawning) need no special handling.
+ *
+ * All storage is primitive arrays that are reused from frame to frame; rebuild() and query() do not allocate once
+ * the arrays have grown to the size of the busiest frame.
+ */
+public class SpatialHashBroadphase implements Broadphase {
+
+    //a little larger than an Alien (radius 20), so most sprites land in one to four cells
+    public static final int DEFAULT_CELL_SIZE = 48;
+
+    //must be a power of two
+    private static final int BUCKETS = 1024;
+
+    private final int cellSize;
+
+    private Movable[] items = new Movable[64];
+    private int numItems;
+
+    //bucket -> first entry; entry -> item index and next entry in the same bucket (-1 terminates)
+    private final int[] bucketHead = new int[BUCKETS];
+    private int[] entryItem = new int[256];
+    private int[] entryNext = new int[256];
+    private int numEntries;
+
+    //query de-duplication: an item was already reported if its stamp equals the current query number
+    private int[] stamps = new int[64];
+    private int queryNumber;
+
+    public SpatialHashBroadphase(int cellSize) {
+        this.cellSize = cellSize;
+        Arrays.fill(bucketHead, -1);
+    }
+
+    @Override
+    public void rebuild(List<? extends Movable> targets) {
+        Arrays.fill(items, 0, numItems, null);
+        Arrays.fill(bucketHead, -1);
+        numItems = 0;
+        numEntries = 0;
+
+        if (items.length < targets.size()) {
+            items = new Movable[targets.size() * 2];
+            stamps = new int[items.length];
+        }
+
+        for (Movable mov : targets) {
+            int index = numItems++;
+            items[index] = mov;
+            stamps[index] = 0;
+
+            Point center = mov.getCenter();
+            int radius = mov.getRadius();
+            int cx0 = cell(center.x - radius), cx1 = cell(center.x + radius);
+            int cy0 = cell(center.y - radius), cy1 = cell(center.y + radius);
+            for (int cy = cy0; cy <= cy1; cy++) {
+                for (int cx = cx0; cx <= cx1; cx++) {
+                    addEntry(bucket(cx, cy), index);
+                }
+            }
+        }
+        queryNumber = 0;
+    }
+
+    @Override
+    public void query(int x, int y, int radius, List<Movable> out) {
+        //the stamp array is cleared on rebuild, so only wrap-around needs a reset
+        if (++queryNumber == Integer.MAX_VALUE) {
+            Arrays.fill(stamps, 0, numItems, 0);
+            queryNumber = 1;
+        }
+
+        int cx0 = cell(x - radius), cx1 = cell(x + radius);
+        int cy0 = cell(y - radius), cy1 = cell(y + radius);
+        for (int cy = cy0; cy <= cy1; cy++) {
+            for (int cx = cx0; cx <= cx1; cx++) {
+                for (int e = bucketHead[bucket(cx, cy)]; e != -1; e = entryNext[e]) {
+                    int index = entryItem[e];
+                    if (stamps[index] == queryNumber) continue;
+                    stamps[index] = queryNumber;
+                    //different cells can share a bucket, so finish with the exact box test
+                    if (BruteForceBroadphase.overlaps(items[index], x, y, radius)) out.add(items[index]);
+                }
+            }
+        }
+    }
+
+    @Override
+    public int size() {
+        return numItems;
+    }
+
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    private static int bucket(int cx, int cy) {
+        return (cx * 73856093 ^ cy * 19349663) & (BUCKETS - 1);
+    }
+
+    private void addEntry(int bucket, int index) {
+        if (numEntries == entryItem.length) {
+            entryItem = Arrays.copyOf(entryItem, numEntries * 2);
+            entryNext = Arrays.copyOf(entryNext, numEntries * 2);
+        }
+        entryItem[numEntries] = index;
+        entryNext[numEntries] = bucketHead[bucket];
+        bucketHead[bucket] = numEntries++;
+    }
+}
@@ -0,0 +1,85 @@
+package game.mvc.controller.collision;
+
+import game.mvc.model.Movable;
+
+import java.awt.*;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Sweep-and-prune along the x-axis. On rebuild the targets are sorted by the left edge of their box; a query
+ * binary-searches to the first box that could still reach the query, then sweeps right until the left edges pass
+ * the right edge of the query box. Works best when targets are spread out horizontally, like a row of bunkers or an
+ * alien formation.
+ *
+ * Sorting is done on packed long keys (left edge in the high word, item index in the low word), so rebuild() does
+ * not allocate once the arrays have grown.
+ */
+public class SweepAndPruneBroadphase implements Broadphase {
+
+    private Movable[] items = new Movable[64];
+    private long[] sortedKeys = new long[64];
+    private int[] sortedMinX = new int[64];
+    private int numItems;
+    //the widest box indexed, which bounds how far left of a query a candidate's left edge may be
+    private int maxDiameter;
+
+    @Override
+    public void rebuild(List<? extends Movable> targets) {
+        Arrays.fill(items, 0, numItems, null);
+        numItems = 0;
+        maxDiameter = 0;
+
+        if (items.length < targets.size()) {
+            items = new Movable[targets.size() * 2];
+            sortedKeys = new long[items.length];
+            sortedMinX = new int[items.length];
+        }
+
+        for (Movable mov : targets) {
+            int index = numItems++;
+            items[index] = mov;
+            int minX = mov.getCenter().x - mov.getRadius();
+            //the signed left edge lives in the high word, so negative (off-screen) edges still sort first
+            sortedKeys[index] = ((long) minX << 32) | index;
+            maxDiameter = Math.max(maxDiameter, mov.getRadius() * 2);
+        }
+
+        Arrays.sort(sortedKeys, 0, numItems);
+        for (int i = 0; i < numItems; i++) {
+            sortedMinX[i] = (int) (sortedKeys[i] >> 32);
+        }
+    }
+
+    @Override
+    public void query(int x, int y, int radius, List<Movable> out) {
+        int queryMinX = x - radius;
+        int queryMaxX = x + radius;
+
+        //first box whose left edge is far enough right that its right edge may reach queryMinX
+        int i = lowerBound(queryMinX - maxDiameter);
+        for (; i < numItems && sortedMinX[i] <= queryMaxX; i++) {
+            Movable mov = items[(int) sortedKeys[i]];
+            if (BruteForceBroadphase.overlaps(mov, x, y, radius)) out.add(mov);
+        }
+    }
+
+    @Override
+    public int size() {
+        return numItems;
+    }
+
+    //index of the first sorted box with a left edge >= minX
+    private int lowerBound(int minX) {
+        int lo = 0, hi = numItems;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sortedMinX[mid] < minX) {
+                lo = mid + 1;
+            } else {
+                hi = mid;
+            }
+        }
+        return lo;
+    }
+}
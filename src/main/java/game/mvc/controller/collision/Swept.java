@@ -0,0 +1,78 @@
+package game.mvc.controller.collision;
+
+/**
+ * Continuous (swept) collision tests, for projectiles that move further in one tick than their targets are wide. A
+ * projectile that moves from (x0, y0) to (x1, y1) during a tick is at (x0, y0) + t * (x1 - x0, y1 - y0) at the
+ * fraction t of the tick, for t from 0 to 1; every test returns the earliest t at which it touches the target, or
+ * MISS. When the target moves as well, the caller passes the motion of the projectile relative to the target, so that
+ * the target stands still (see Simulation.checkCollisions()); both are taken to move in a straight line at a constant
+ * speed during the tick.
+ *
+ * Touching means what it means to the discrete tests: closer than the sum of the radii, or strictly inside a box.
+ * A projectile that only grazes its target misses it.
+ */
+public final class Swept {
+
+    public static final double MISS = -1;
+
+    private Swept() {
+    }
+
+    /**
+     * The earliest t at which the point moving from (x0, y0) to (x1, y1) comes closer than radius to (centerX,
+     * centerY): for a circle against a circle, radius is the sum of both radii. 0 if it is that close at the start.
+     */
+    public static double segmentCircle(double x0, double y0, double x1, double y1,
+                                       double centerX, double centerY, double radius) {
+        double fromX = x0 - centerX;
+        double fromY = y0 - centerY;
+        double c = fromX * fromX + fromY * fromY - radius * radius;
+        if (c < 0) return 0;
+
+        //|from + t * d|^2 = radius^2 is a * t^2 + 2 * b * t + c = 0; the smaller root is where the path enters
+        double dx = x1 - x0;
+        double dy = y1 - y0;
+        double a = dx * dx + dy * dy;
+        double b = fromX * dx + fromY * dy;
+        //standing still, or moving away
+        if (a == 0 || b >= 0) return MISS;
+        double discriminant = b * b - a * c;
+        if (discriminant <= 0) return MISS;
+        double t = (-b - Math.sqrt(discriminant)) / a;
+        return t < 1 ? t : MISS;
+    }
+
+    /**
+     * The earliest t at which the point moving from (x0, y0) to (x1, y1) is inside the box from (minX, minY) to (maxX,
+     * maxY): for a circle, grow the box by its radius. 0 if it starts inside. This is the slab test: the path is inside
+     * the box while it is between both pairs of edges at once.
+     */
+    public static double segmentBox(double x0, double y0, double x1, double y1,
+                                    double minX, double minY, double maxX, double maxY) {
+        double enter = 0;
+        double exit = 1;
+
+        double dx = x1 - x0;
+        if (dx == 0) {
+            if (x0 <= minX || x0 >= maxX) return MISS;
+        } else {
+            double t0 = (minX - x0) / dx;
+            double t1 = (maxX - x0) / dx;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+            if (enter >= exit) return MISS;
+        }
+
+        double dy = y1 - y0;
+        if (dy == 0) {
+            if (y0 <= minY || y0 >= maxY) return MISS;
+        } else {
+            double t0 = (minY - y0) / dy;
+            double t1 = (maxY - y0) / dy;
+            enter = Math.max(enter, Math.min(t0, t1));
+            exit = Math.min(exit, Math.max(t0, t1));
+            if (enter >= exit) return MISS;
+        }
+        return enter;
+    }
+}
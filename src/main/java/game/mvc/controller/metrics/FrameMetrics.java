@@ -0,0 +1,184 @@
+package game.mvc.controller.metrics;
+
+import game.mvc.model.SpritePool;
+
+import java.lang.management.ManagementFactory;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.management.ObjectName;
+
+/**
+ * Timings of every phase of a simulation tick, of the tick as a whole and of rendering a frame, each in a
+ * RollingHistogram, plus the size of every team list after the last tick. The Simulation and the Game's render loop
+ * record into it; the GamePanel overlay and the FrameMetricsMXBean read from it.
+ *
+ * Like the CommandCenter, this is a singleton.
+ */
+public class FrameMetrics implements FrameMetricsMXBean {
+
+    public enum Phase {
+        INPUT,
+        ALIENS,
+        MOVE,
+        UFO,
+        COLLISIONS,
+        LEVEL,
+        OPS_QUEUE,
+        //the whole tick, all of the above included
+        TICK,
+        //capturing the RenderSnapshot after the ticks, on the simulation thread
+        SNAPSHOT,
+        RENDER,
+        //not a phase: the time from a key event to the end of the first frame drawn after the tick that applied it
+        INPUT_LATENCY
+    }
+
+    public static final String OBJECT_NAME = "game.mvc:type=FrameMetrics";
+
+    private static final FrameMetrics INSTANCE = new FrameMetrics();
+
+    private final Map<Phase, RollingHistogram> histograms = new EnumMap<>(Phase.class);
+
+    private volatile int numFriends;
+    private volatile int numFoes;
+    private volatile int numDebris;
+    private volatile int numFloaters;
+
+    private FrameMetrics() {
+        for (Phase phase : Phase.values()) {
+            histograms.put(phase, new RollingHistogram());
+        }
+    }
+
+    public static FrameMetrics getInstance() {
+        return INSTANCE;
+    }
+
+    //records the time since start for the phase, and returns the current time, so that phases can be timed back to
+    //back: start = metrics.lap(Phase.ALIENS, start);
+    public long lap(Phase phase, long start) {
+        long now = System.nanoTime();
+        histograms.get(phase).record(now - start);
+        return now;
+    }
+
+    public RollingHistogram getHistogram(Phase phase) {
+        return histograms.get(phase);
+    }
+
+    public void recordCounts(int friends, int foes, int debris, int floaters) {
+        numFriends = friends;
+        numFoes = foes;
+        numDebris = debris;
+        numFloaters = floaters;
+    }
+
+    //registers with the platform MBean server, so that jconsole or any other JMX client can watch a running game
+    public void registerMBean() {
+        try {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, new ObjectName(OBJECT_NAME));
+        } catch (Exception e) {
+            System.err.println("Could not register the frame metrics MBean: " + e);
+        }
+    }
+
+    // ==============================================================
+    // FrameMetricsMXBean
+    // ==============================================================
+
+    @Override
+    public Map<String, Double> getP50Micros() {
+        return percentiles(0.5);
+    }
+
+    @Override
+    public Map<String, Double> getP99Micros() {
+        return percentiles(0.99);
+    }
+
+    @Override
+    public double getTickP50Micros() {
+        return micros(histograms.get(Phase.TICK).percentile(0.5));
+    }
+
+    @Override
+    public double getTickP99Micros() {
+        return micros(histograms.get(Phase.TICK).percentile(0.99));
+    }
+
+    @Override
+    public double getRenderP50Micros() {
+        return micros(histograms.get(Phase.RENDER).percentile(0.5));
+    }
+
+    @Override
+    public double getRenderP99Micros() {
+        return micros(histograms.get(Phase.RENDER).percentile(0.99));
+    }
+
+    @Override
+    public long getTicks() {
+        return histograms.get(Phase.TICK).getTotal();
+    }
+
+    @Override
+    public Map<String, Integer> getEntityCounts() {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        counts.put("friends", numFriends);
+        counts.put("foes", numFoes);
+        counts.put("debris", numDebris);
+        counts.put("floaters", numFloaters);
+        return counts;
+    }
+
+    @Override
+    public int getNumFriends() {
+        return numFriends;
+    }
+
+    @Override
+    public int getNumFoes() {
+        return numFoes;
+    }
+
+    @Override
+    public int getNumDebris() {
+        return numDebris;
+    }
+
+    @Override
+    public int getNumFloaters() {
+        return numFloaters;
+    }
+
+    @Override
+    public Map<String, Integer> getPoolIdle() {
+        Map<String, Integer> idle = new LinkedHashMap<>();
+        for (SpritePool<?> pool : SpritePool.all()) {
+            idle.put(pool.getName(), pool.getIdle());
+        }
+        return idle;
+    }
+
+    @Override
+    public Map<String, Long> getPoolCreated() {
+        Map<String, Long> created = new LinkedHashMap<>();
+        for (SpritePool<?> pool : SpritePool.all()) {
+            created.put(pool.getName(), pool.getCreated());
+        }
+        return created;
+    }
+
+    private Map<String, Double> percentiles(double fraction) {
+        Map<String, Double> values = new LinkedHashMap<>();
+        for (Phase phase : Phase.values()) {
+            values.put(phase.name(), micros(histograms.get(phase).percentile(fraction)));
+        }
+        return values;
+    }
+
+    public static double micros(long nanos) {
+        return nanos / 1000.0;
+    }
+}
@@ -0,0 +1,40 @@
+package game.mvc.controller.metrics;
+
+import java.util.Map;
+
+/**
+ * The JMX view of FrameMetrics, registered as "game.mvc:type=FrameMetrics". Percentiles are over the last
+ * RollingHistogram.WINDOW samples of each phase, in microseconds. The TICK and RENDER percentiles are also exposed
+ * as plain attributes, which JMX clients such as jconsole can chart.
+ */
+public interface FrameMetricsMXBean {
+
+    Map<String, Double> getP50Micros();
+
+    Map<String, Double> getP99Micros();
+
+    double getTickP50Micros();
+
+    double getTickP99Micros();
+
+    double getRenderP50Micros();
+
+    double getRenderP99Micros();
+
+    long getTicks();
+
+    Map<String, Integer> getEntityCounts();
+
+    int getNumFriends();
+
+    int getNumFoes();
+
+    int getNumDebris();
+
+    int getNumFloaters();
+
+    //pool name -> idle sprites, and -> sprites allocated so far; see SpritePool
+    Map<String, Integer> getPoolIdle();
+
+    Map<String, Long> getPoolCreated();
+}
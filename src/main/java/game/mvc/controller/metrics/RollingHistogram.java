@@ -0,0 +1,90 @@
+package game.mvc.controller.metrics;
+
+import java.util.Arrays;
+
+/**
+ * A histogram of the last WINDOW samples (durations in nanoseconds). Samples are filed into log-linear buckets: 8
+ * buckets per power of two, so a reported percentile is within about 6% of the true value. Recording is a few array
+ * writes and never allocates; evicting the oldest sample from the ring of bucket indexes keeps the counts rolling.
+ *
+ * Written by one thread. Other threads (the JMX agent) may read at any time and then see approximate values.
+ */
+public class RollingHistogram {
+
+    public static final int WINDOW = 512;
+
+    //values below 8 get a bucket each; from there on, 8 buckets per power of two up to 2^63
+    private static final int SUB_BUCKETS = 8;
+    private static final int BUCKETS = (63 - 2) * SUB_BUCKETS;
+
+    private final int[] counts = new int[BUCKETS];
+    private final short[] ring = new short[WINDOW];
+    private int next;
+    private int size;
+    private long total;
+    private volatile long last;
+
+    public void record(long nanos) {
+        int bucket = bucket(Math.max(0, nanos));
+        if (size == WINDOW) {
+            counts[ring[next]]--;
+        } else {
+            size++;
+        }
+        ring[next] = (short) bucket;
+        counts[bucket]++;
+        next = (next + 1) % WINDOW;
+        total++;
+        last = nanos;
+    }
+
+    //the duration below which the given fraction (0 to 1) of the samples in the window fall; 0 if there are none
+    public long percentile(double fraction) {
+        int samples = size;
+        if (samples == 0) return 0;
+        long rank = Math.max(1, (long) Math.ceil(fraction * samples));
+        long seen = 0;
+        for (int bucket = 0; bucket < BUCKETS; bucket++) {
+            seen += counts[bucket];
+            if (seen >= rank) return midpoint(bucket);
+        }
+        return midpoint(BUCKETS - 1);
+    }
+
+    public long getLast() {
+        return last;
+    }
+
+    //samples recorded since the last reset, including those that have left the window
+    public long getTotal() {
+        return total;
+    }
+
+    public void reset() {
+        Arrays.fill(counts, 0);
+        next = 0;
+        size = 0;
+        total = 0;
+        last = 0;
+    }
+
+    static int bucket(long value) {
+        if (value < SUB_BUCKETS) return (int) value;
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int sub = (int) (value >>> (exponent - 3)) - SUB_BUCKETS;
+        return (exponent - 2) * SUB_BUCKETS + sub;
+    }
+
+    private static long lowerBound(int bucket) {
+        if (bucket < SUB_BUCKETS) return bucket;
+        int exponent = bucket / SUB_BUCKETS + 2;
+        int sub = bucket % SUB_BUCKETS;
+        return (long) (SUB_BUCKETS + sub) << (exponent - 3);
+    }
+
+    private static long midpoint(int bucket) {
+        long lower = lowerBound(bucket);
+        long upper = bucket + 1 < BUCKETS ? lowerBound(bucket + 1) : Long.MAX_VALUE;
+        return lower + (upper - lower) / 2;
+    }
+}
@@ -1,6 +1,7 @@
 package game.mvc.model;
 
 import game.mvc.controller.CommandCenter;
+import game.mvc.controller.EntityList;
 import game.mvc.controller.Game;
 import game.mvc.controller.GameOp;
 
@@ -8,38 +9,50 @@ import java.awt.*;
 
 public class AlienBullet extends Sprite {
 
-    public AlienBullet(Alien alien) {
+    // Squiggly shape points, shared by all alien bullets
+    private static final Point[] CARTESIANS = {
+            new Point(8, 0),
+            new Point(5, -3),
+            new Point(3, 2),
+            new Point(0, -2),
+            new Point(-3, 3),
+            new Point(-5, -2),
+            new Point(-8, 0)
+    };
+
+    private static final Color[] COLORS = {Color.PINK, Color.GREEN, Color.RED};
+
+    private static final SpritePool<AlienBullet> POOL = new SpritePool<>("AlienBullet", AlienBullet::new, 64);
+
+    private AlienBullet() {
+        super(new Point());
         setTeam(Team.FOE);
+        setRadius(8);
+        setCartesians(CARTESIANS);
+    }
+
+    //fired by the alien centered on origin; from the pool, see SpritePool
+    public static AlienBullet acquire(Point origin) {
+        AlienBullet bullet = POOL.acquire();
+        bullet.recycle();
 
         // Random colors for bullets
-        Color[] bulletColors = {Color.PINK, Color.GREEN, Color.RED};
-        setColor(bulletColors[Game.R.nextInt(bulletColors.length)]);
+        bullet.setColor(COLORS[Game.R.nextInt(COLORS.length)]);
 
-        setExpiry(200);
-        setRadius(8);
+        bullet.setExpiry(200);
 
         // Start at alien's position
-        setCenter(new Point(alien.getCenter().x, alien.getCenter().y));
+        bullet.getCenter().setLocation(origin.x, origin.y);
 
         // Fall straight down
-        setDeltaX(0);
-        setDeltaY(8);
-
-        // Squiggly shape points
-        setCartesians(new Point[]{
-                new Point(8, 0),
-                new Point(5, -3),
-                new Point(3, 2),
-                new Point(0, -2),
-                new Point(-3, 3),
-                new Point(-5, -2),
-                new Point(-8, 0)
-        });
+        bullet.setDeltaX(0);
+        bullet.setDeltaY(8);
+        return bullet;
     }
 
     @Override
-    public void draw(Graphics g) {
-        renderVector(g);
+    public void draw(RenderSink sink) {
+        renderVector(sink);
     }
 
     @Override
@@ -51,4 +64,9 @@ public class AlienBullet extends Sprite {
             CommandCenter.getInstance().getOpsQueue().enqueue(this, GameOp.Action.REMOVE);
         }
     }
+
+    @Override
+    public void removeFromGame(EntityList list) {
+        if (list.remove(this)) POOL.release(this);
+    }
 }
@@ -1,50 +1,70 @@
 package game.mvc.model;
 
+import game.mvc.controller.EntityList;
 import game.mvc.controller.ImageLoader;
+import game.mvc.model.prime.AtlasRegion;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
 
 public class AlienDebris extends Sprite {
     private static final int SHOW_TIME = 3; // frames to show explosion
 
-    public AlienDebris(Alien destroyedAlien) {
-        setTeam(Team.DEBRIS);
+    // alien type -> raster map with the explosion image in the color of that type, shared by all debris of the type
+    private static final Map<Integer, Map<Integer, AtlasRegion>> RASTER_MAPS = new HashMap<>();
+    static {
+        for (int type = 1; type <= 3; type++) {
+            // Load explosion image
+            RASTER_MAPS.put(type, Collections.singletonMap(0,
+                    ImageLoader.getRegion("imgs/exp/" + getColorByType(type) + ".png")));
+        }
+    }
 
-        // Get color based on alien type
-        String color = getColorByType(destroyedAlien.getAlienType());
+    private static final SpritePool<AlienDebris> POOL = new SpritePool<>("AlienDebris", AlienDebris::new, 64);
 
-        // Load explosion image
-        Map<Integer, BufferedImage> rasterMap = new HashMap<>();
-        rasterMap.put(0, ImageLoader.getImage("imgs/exp/" + color + ".png"));
+    private AlienDebris() {
+        super(new Point());
+        setTeam(Team.DEBRIS);
+    }
 
-        setRasterMap(rasterMap);
-        setExpiry(SHOW_TIME);
+    //debris of an alien of the given type (see AlienFormation) that was centered on center; from the pool, see
+    //SpritePool
+    public static AlienDebris acquire(int alienType, Point center, int alienRadius) {
+        AlienDebris debris = POOL.acquire();
+        debris.recycle();
+
+        // Get color based on alien type
+        debris.setRasterMap(RASTER_MAPS.getOrDefault(alienType, Collections.emptyMap()));
+        debris.setExpiry(SHOW_TIME);
 
         // Copy position from destroyed alien
-        setCenter((Point) destroyedAlien.getCenter().clone());
-        setDeltaX(0);
-        setDeltaY(0);
-        setRadius((int) (destroyedAlien.getRadius() * 1.3));
+        debris.getCenter().setLocation(center);
+        debris.setRadius((int) (alienRadius * 1.3));
+        return debris;
     }
 
-    private String getColorByType(int type) {
+    private static String getColorByType(int type) {
         switch(type) {
             case 1: return "pink";   // 10 points
             case 2: return "green";  // 20 points
             case 3: return "red"; // 40 points
-            default: return "white";
+            default: return "white"; // there is no such image, unknown types leave no debris
         }
     }
 
     @Override
-    public void draw(Graphics g) {
-        BufferedImage img = getRasterMap().get(0);
+    public void draw(RenderSink sink) {
+        AtlasRegion img = getRasterMap().get(0);
         if (img != null) {
-            renderRaster((Graphics2D) g, img);
+            renderRaster(sink, img);
         }
     }
 
+    @Override
+    public void removeFromGame(EntityList list) {
+        if (list.remove(this)) POOL.release(this);
+    }
+
 }
@@ -0,0 +1,341 @@
+package game.mvc.model;
+
+import game.mvc.controller.*;
+import game.mvc.controller.collision.Hit;
+import game.mvc.controller.collision.Swept;
+import game.mvc.model.prime.AtlasRegion;
+
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * The whole alien formation as one FOE sprite. Aliens are cells of a rows x cols grid whose cell (0, 0) is centered
+ * on the formation's origin (the sprite's center); every other cell is a fixed offset of SPACING_X/SPACING_Y from
+ * it. Which cells are still alive is a bitset, and each cell has a type code (1, 2 or 3 for the 10, 20 and 40 point
+ * aliens). So:
+ *
+ * - moving the formation is a single update of the origin, however many aliens it holds;
+ * - a bullet maps to its cell in O(1) from its position relative to the origin (see hit()), and its path to the few
+ *   cells around it (see sweep());
+ * - the edges and the bottom of the formation come from per-column and per-row alive counts, not from a scan.
+ *
+ * The group state that used to be static in the Alien class (direction, animation, shooting) lives here as well.
+ */
+public class AlienFormation extends Sprite {
+
+    public static final int SPACING_X = 60;
+    public static final int SPACING_Y = 50;
+    //the collision radius of one alien
+    public static final int ALIEN_RADIUS = 20;
+
+    private static final int ANIMATION_SPEED = 30; // Frames between animation changes
+    private static final int MIN_SHOOT_INTERVAL = 20; // lower number, more frequent shots
+    private static final int MOVE_SPEED = 2; // pixels per frame
+    private static final int DROP_DISTANCE = 20;
+
+    //IMAGES[type][animation frame]; type 0 is unused
+    private static final AtlasRegion[][] IMAGES = {
+            {null, null},
+            {ImageLoader.getRegion("imgs/aliens/10PointAlien1.png"), ImageLoader.getRegion("imgs/aliens/10PointAlien2.png")},
+            {ImageLoader.getRegion("imgs/aliens/20PointAlien1.png"), ImageLoader.getRegion("imgs/aliens/20PointAlien2.png")},
+            {ImageLoader.getRegion("imgs/aliens/40PointAlien1.png"), ImageLoader.getRegion("imgs/aliens/40PointAlien2.png")}
+    };
+    //fallback colors if the images fail to load: pink, green and orange
+    private static final Color[] COLORS = {Color.WHITE, Color.PINK, Color.GREEN, Color.ORANGE};
+    private static final long[] POINTS = {0, 10, 20, 40};
+
+    private final int rows;
+    private final int cols;
+    //bit (row * cols + col) is set while that alien is alive
+    private final long[] alive;
+    private final byte[] types;
+    private final int[] aliveInColumn;
+    private final int[] aliveInRow;
+    private int aliveCount;
+    //bounds of the alive aliens, kept up to date as aliens die
+    private int minCol, maxCol, maxRow;
+
+    private int groupDirection = 1; // 1 for right, -1 for left
+    private boolean shouldDropDown = false;
+    private int animationFrame = 0;
+    private double moveRemainder = 0; // fraction of a pixel the group still has to move
+    private int shootDelay = 0; // frames since last shot
+    //scratch point for sweep()
+    private final Point previousOrigin = new Point();
+
+    /**
+     * Creates a full formation whose top-left alien is centered on (originX, originY). The top row holds the 40 point
+     * aliens, the next two rows the 20 point aliens, and all further rows the 10 point aliens.
+     */
+    public AlienFormation(int rows, int cols, int originX, int originY) {
+        setTeam(Team.FOE);
+        setRadius(ALIEN_RADIUS);
+        setCenter(new Point(originX, originY));
+
+        this.rows = rows;
+        this.cols = cols;
+        alive = new long[(rows * cols + 63) / 64];
+        types = new byte[rows * cols];
+        aliveInColumn = new int[cols];
+        aliveInRow = new int[rows];
+
+        for (int row = 0; row < rows; row++) {
+            byte type = (byte) (row == 0 ? 3 : row <= 2 ? 2 : 1);
+            for (int col = 0; col < cols; col++) {
+                int cell = row * cols + col;
+                alive[cell >>> 6] |= 1L << cell;
+                types[cell] = type;
+            }
+            aliveInRow[row] = cols;
+        }
+        Arrays.fill(aliveInColumn, rows);
+        aliveCount = rows * cols;
+        minCol = 0;
+        maxCol = cols - 1;
+        maxRow = rows - 1;
+    }
+
+    // ==============================================================
+    // GROUP MOVEMENT
+    // ==============================================================
+
+    //moves the formation and lets it shoot; called once per tick by the Simulation
+    public void update() {
+        if (aliveCount == 0) return;
+
+        // Animation and shooting count frames; zero or more frames may have passed during this tick
+        int frames = CommandCenter.getInstance().getElapsedFrames();
+        animationFrame += frames;
+
+        for (int i = 0; i < frames; i++) {
+            // Decrement shoot delay
+            if (shootDelay > 0) {
+                shootDelay--;
+            }
+
+            // Random alien shoots
+            if (shootDelay == 0 && Game.R.nextInt(100) < 3) { // 3% chance per frame
+                // Any alien can shoot
+                int shooter = nthAlive(Game.R.nextInt(aliveCount));
+                CommandCenter.getInstance().getOpsQueue().enqueue(
+                        AlienBullet.acquire(cellCenter(shooter)), GameOp.Action.ADD);
+                shootDelay = MIN_SHOOT_INTERVAL;
+            }
+        }
+
+        // Whole pixels to move during this tick; the fraction is carried over to the next tick
+        moveRemainder += MOVE_SPEED * Game.TICK_SCALE;
+        int step = (int) moveRemainder;
+        moveRemainder -= step;
+
+        // Check if the outermost alive column has hit the edge
+        Point origin = getCenter();
+        if ((groupDirection > 0 && origin.x + maxCol * SPACING_X >= Game.DIM.width - 30) ||
+                (groupDirection < 0 && origin.x + minCol * SPACING_X <= 30)) {
+            groupDirection *= -1;
+            shouldDropDown = true;
+        }
+
+        // Move all aliens at once
+        if (shouldDropDown) {
+            origin.y += DROP_DISTANCE;
+            shouldDropDown = false;
+        } else {
+            origin.x += groupDirection * step;
+        }
+    }
+
+    @Override
+    public void move() {
+        // movement handled by update()
+    }
+
+    // ==============================================================
+    // HIT TESTING
+    // ==============================================================
+
+    /**
+     * Returns the alive alien that a circle at (x, y) with the given radius touches, as a cell index, or -1. Only the
+     * cells around (x, y) are tested, which for a bullet is at most a 2x2 block.
+     */
+    public int hit(int x, int y, int radius) {
+        if (aliveCount == 0) return -1;
+        int reach = radius + ALIEN_RADIUS;
+        Point origin = getCenter();
+        int colMin = Math.max(minCol, Math.floorDiv(x - reach - origin.x + SPACING_X - 1, SPACING_X));
+        int colMax = Math.min(maxCol, Math.floorDiv(x + reach - origin.x, SPACING_X));
+        int rowMin = Math.max(0, Math.floorDiv(y - reach - origin.y + SPACING_Y - 1, SPACING_Y));
+        int rowMax = Math.min(maxRow, Math.floorDiv(y + reach - origin.y, SPACING_Y));
+
+        int nearest = -1;
+        long nearestDistSq = (long) reach * reach;
+        for (int row = rowMin; row <= rowMax; row++) {
+            for (int col = colMin; col <= colMax; col++) {
+                int cell = row * cols + col;
+                if (!isAlive(cell)) continue;
+                long dx = origin.x + col * SPACING_X - x;
+                long dy = origin.y + row * SPACING_Y - y;
+                long distSq = dx * dx + dy * dy;
+                if (distSq < nearestDistSq) {
+                    nearestDistSq = distSq;
+                    nearest = cell;
+                }
+            }
+        }
+        return nearest;
+    }
+
+    /**
+     * Sweeps a circle of the given radius from (x0, y0) to (x1, y1) during the tick (see Swept) across the alive
+     * aliens, and offers the first one it touches to hit, as a cell index. The formation moved during the tick as
+     * well, so the path is taken relative to the origin, which is where the formation was at the start of the tick for
+     * (x0, y0), and where it is now for (x1, y1). Only the cells around that path are tested.
+     */
+    public void sweep(int x0, int y0, int x1, int y1, int radius, Hit hit) {
+        if (aliveCount == 0) return;
+        getPreviousCenter(previousOrigin);
+        Point origin = getCenter();
+        int fromX = x0 - previousOrigin.x;
+        int fromY = y0 - previousOrigin.y;
+        int toX = x1 - origin.x;
+        int toY = y1 - origin.y;
+
+        int reach = radius + ALIEN_RADIUS;
+        int colMin = Math.max(minCol, Math.floorDiv(Math.min(fromX, toX) - reach + SPACING_X - 1, SPACING_X));
+        int colMax = Math.min(maxCol, Math.floorDiv(Math.max(fromX, toX) + reach, SPACING_X));
+        int rowMin = Math.max(0, Math.floorDiv(Math.min(fromY, toY) - reach + SPACING_Y - 1, SPACING_Y));
+        int rowMax = Math.min(maxRow, Math.floorDiv(Math.max(fromY, toY) + reach, SPACING_Y));
+
+        for (int row = rowMin; row <= rowMax; row++) {
+            for (int col = colMin; col <= colMax; col++) {
+                int cell = row * cols + col;
+                if (!isAlive(cell)) continue;
+                hit.offer(Swept.segmentCircle(fromX, fromY, toX, toY, col * SPACING_X, row * SPACING_Y, reach),
+                        this, cell);
+            }
+        }
+    }
+
+    /**
+     * Destroys the alien in the given cell: leaves debris, awards its points and plays the sound, just like a single
+     * Alien used to when it was removed. A formation with no aliens left removes itself from the game.
+     */
+    public void kill(int cell) {
+        if (!isAlive(cell)) return;
+        alive[cell >>> 6] &= ~(1L << cell);
+        aliveCount--;
+        int row = cell / cols;
+        int col = cell % cols;
+        aliveInRow[row]--;
+        aliveInColumn[col]--;
+        while (minCol <= maxCol && aliveInColumn[minCol] == 0) minCol++;
+        while (maxCol >= minCol && aliveInColumn[maxCol] == 0) maxCol--;
+        while (maxRow >= 0 && aliveInRow[maxRow] == 0) maxRow--;
+
+        // Spawn colored debris where the alien was
+        CommandCenter.getInstance().getOpsQueue().enqueue(
+                AlienDebris.acquire(types[cell], cellCenter(cell), ALIEN_RADIUS), GameOp.Action.ADD);
+
+        // Award points based on alien type
+        CommandCenter.getInstance().setScore(CommandCenter.getInstance().getScore() + POINTS[types[cell]]);
+
+        // Play sound effect
+        SoundLoader.playSound("invaderkilled.wav");
+
+        if (aliveCount == 0) CommandCenter.getInstance().getOpsQueue().enqueue(this, GameOp.Action.REMOVE);
+    }
+
+    public boolean isAlive(int cell) {
+        return (alive[cell >>> 6] & (1L << cell)) != 0;
+    }
+
+    //the index of the n-th alive alien (from 0), counting row by row from the top-left
+    public int nthAlive(int n) {
+        for (int word = 0; word < alive.length; word++) {
+            long bits = alive[word];
+            int count = Long.bitCount(bits);
+            if (n >= count) {
+                n -= count;
+                continue;
+            }
+            while (n-- > 0) bits &= bits - 1;
+            return (word << 6) + Long.numberOfTrailingZeros(bits);
+        }
+        return -1;
+    }
+
+    public Point cellCenter(int cell) {
+        return new Point(getCenter().x + (cell % cols) * SPACING_X, getCenter().y + (cell / cols) * SPACING_Y);
+    }
+
+    public int getAliveCount() {
+        return aliveCount;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getCols() {
+        return cols;
+    }
+
+    public int getType(int cell) {
+        return types[cell];
+    }
+
+    public long[] getAlive() {
+        return Arrays.copyOf(alive, alive.length);
+    }
+
+    //the y-coordinate of the center of the lowest alive row
+    public int getBottomY() {
+        return getCenter().y + maxRow * SPACING_Y;
+    }
+
+    // ==============================================================
+    // DRAWING
+    // ==============================================================
+
+    //the box around the alive aliens
+    @Override
+    public void getDrawBounds(Rectangle bounds) {
+        int reach = ALIEN_RADIUS + 1;
+        int x = renderX() + minCol * SPACING_X - reach;
+        int y = renderY() - reach;
+        bounds.setBounds(x, y, (maxCol - minCol) * SPACING_X + reach * 2 + 1, maxRow * SPACING_Y + reach * 2 + 1);
+    }
+
+    //changes when the aliens flip to their other animation frame, or one of them dies
+    @Override
+    public long getAppearance() {
+        return (long) aliveCount << 1 | (animationFrame / ANIMATION_SPEED) % 2;
+    }
+
+    @Override
+    public void draw(RenderSink sink) {
+        // Determine which animation frame to show (flips every ANIMATION_SPEED frames)
+        int frame = (animationFrame / ANIMATION_SPEED) % 2;
+        //the origin is interpolated like any sprite's center; every alien is drawn relative to it
+        int originX = renderX();
+        int originY = renderY();
+        int size = ALIEN_RADIUS * 2;
+
+        for (int word = 0; word < alive.length; word++) {
+            long bits = alive[word];
+            while (bits != 0) {
+                int cell = (word << 6) + Long.numberOfTrailingZeros(bits);
+                bits &= bits - 1;
+                int x = originX + (cell % cols) * SPACING_X;
+                int y = originY + (cell / cols) * SPACING_Y;
+                AtlasRegion img = IMAGES[types[cell]][frame];
+                if (img != null) {
+                    sink.drawRaster(img, x, y, size, size, 0);
+                } else {
+                    // Fallback: draw colored rectangles if images fail to load
+                    sink.fillRect(x - 15, y - 10, 30, 20, COLORS[types[cell]]);
+                }
+            }
+        }
+    }
+}
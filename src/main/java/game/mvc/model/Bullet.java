@@ -1,32 +1,44 @@
 package game.mvc.model;
 
+import game.mvc.controller.EntityList;
 import game.mvc.controller.SoundLoader;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.LinkedList;
-import java.util.List;
 
 public class Bullet extends Sprite {
 
+    //define the points on a cartesian grid - simple line for space invaders. Shared by all bullets.
+    private static final Point[] CARTESIANS = {
+            new Point(0, 6), //top of line
+            new Point(0, -6) //bottom of line
+    };
 
 
-    public Bullet(LaserCannon laserCannon) {
+    private static final SpritePool<Bullet> POOL = new SpritePool<>("Bullet", Bullet::new, 64);
 
+
+    private Bullet() {
+        super(new Point());
         setTeam(Team.FRIEND);
         setColor(Color.GREEN);
-
-        setExpiry(20);
         setRadius(6);
+        setCartesians(CARTESIANS);
+    }
 
+    //a bullet fired by the laserCannon, from the pool; see SpritePool
+    public static Bullet acquire(LaserCannon laserCannon) {
+        Bullet bullet = POOL.acquire();
+        bullet.recycle();
+
+        bullet.setExpiry(20);
 
         //everything is relative to the laserCannon ship that fired the bullet
         // Position bullet at the top of the laser cannon
-        Point cannonTop = new Point(laserCannon.getCenter().x, laserCannon.getCenter().y - laserCannon.getRadius());
-        setCenter(cannonTop);
+        bullet.getCenter().setLocation(laserCannon.getCenter().x,
+                laserCannon.getCenter().y - laserCannon.getRadius());
 
         //set the bullet orientation to fire straight up (270 degrees or -90 degrees)
-        setOrientation(270); // or -90, both point upward
+        bullet.setOrientation(270); // or -90, both point upward
 
         final double FIRE_POWER = 35.0;
         // Fire straight up (negative Y direction)
@@ -34,8 +46,8 @@ public class Bullet extends Sprite {
         double vectorY = -FIRE_POWER; // Negative Y moves upward
 
         //fire force: just the fire-vector (no cannon inertia for vertical shooting)
-        setDeltaX(vectorX);
-        setDeltaY(vectorY);
+        bullet.setDeltaX(vectorX);
+        bullet.setDeltaY(vectorY);
 
         //we have a reference to the laserCannon passed into the constructor. Let's create some kick-back.
         //fire kick-back on the laserCannon: inertia - fire-vector / some arbitrary divisor
@@ -43,28 +55,25 @@ public class Bullet extends Sprite {
         laserCannon.setDeltaX(laserCannon.getDeltaX() - vectorX / KICK_BACK_DIVISOR);
         laserCannon.setDeltaY(laserCannon.getDeltaY() - vectorY / KICK_BACK_DIVISOR);
 
-        //define the points on a cartesian grid - simple line for space invaders
-        List<Point> listPoints = new ArrayList<>();
-        listPoints.add(new Point(0, 6)); //top of line
-        listPoints.add(new Point(0, -6)); //bottom of line
-
-        setCartesians(listPoints.toArray(new Point[0]));
-
-
-
-
+        return bullet;
     }
 
 
     @Override
-    public void draw(Graphics g) {
-           renderVector(g);
+    public void draw(RenderSink sink) {
+           renderVector(sink);
     }
 
     @Override
-    public void addToGame(LinkedList<Movable> list) {
+    public void addToGame(EntityList list) {
         super.addToGame(list);
         SoundLoader.playSound("shoot.wav");
 
     }
+
+    @Override
+    public void removeFromGame(EntityList list) {
+        //only a bullet that really left the game goes back to the pool; a second REMOVE in the same tick finds nothing
+        if (list.remove(this)) POOL.release(this);
+    }
 }
@@ -2,71 +2,235 @@ package game.mvc.model;
 
 import game.mvc.controller.CommandCenter;
 import game.mvc.controller.GameOp;
+import game.mvc.controller.collision.Hit;
+import game.mvc.controller.collision.Swept;
 
 import java.awt.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
 
-public class Bunker {
+/**
+ * A destructible bunker. A bunker is a single DEBRIS sprite that owns a packed bit grid of 5x5 pixel cells: bit c
+ * of cells[r] is set while the cell in row r, column c is still standing. Hit tests are bit tests, craters are
+ * cleared with one AND-NOT per row, and the bunker draws itself as a single cached image that is only rebuilt after
+ * its cells change.
+ */
+public class Bunker extends Sprite {
 
-    private static final int BRICK_SIZE = 5; // Size of each brick
-    private List<Brick> bricks;
+    public static final int CELL_SIZE = 5; // Size of each cell in pixels
+    // Cells within this distance of the cell that was hit are destroyed as well
+    public static final int DAMAGE_RADIUS = 15;
 
-    /**
-     * Creates a bunker at the specified position - manages bricks
-     */
-    public Bunker(int centerX, int centerY) {
-        bricks = new ArrayList<>();
-        createBunkerShape(centerX, centerY);
-    }
+    // Define bunker shape as 2D array (1 = cell, 0 = empty). Roughly 21x6 grid pattern
+    private static final int[][] PATTERN = {
+            {0,0,0,0,1,1,1,1,1,1,1,1,1,1,1,1,1,0,0,0,0},
+            {0,0,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,0,0},
+            {0,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,0},
+            {1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1},
+            {1,1,1,1,1,1,0,0,0,0,0,0,0,0,0,1,1,1,1,1,1},
+            {1,1,1,1,1,0,0,0,0,0,0,0,0,0,0,0,1,1,1,1,1}
+    };
 
-    private void createBunkerShape(int centerX, int centerY) {
-        // Roughly 21x6 grid pattern
+    // CRATER[dr + CRATER_REACH] holds the columns (relative to the hit column, shifted by CRATER_REACH) that a hit
+    // clears in row (hit row + dr)
+    private static final int CRATER_REACH = (DAMAGE_RADIUS - 1) / CELL_SIZE;
+    private static final long[] CRATER = createCrater();
 
-        // Define bunker shape as 2D array (1 = brick, 0 = empty)
-        int[][] pattern = {
-                {0,0,0,0,1,1,1,1,1,1,1,1,1,1,1,1,1,0,0,0,0},
-                {0,0,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,0,0},
-                {0,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,0},
-                {1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1,1},
-                {1,1,1,1,1,1,0,0,0,0,0,0,0,0,0,1,1,1,1,1,1},
-                {1,1,1,1,1,0,0,0,0,0,0,0,0,0,0,0,1,1,1,1,1}
-        };
+    private final int rows;
+    private final int cols;
+    // one long per row, so a bunker may be at most 64 cells wide
+    private final long[] cells;
+    // top-left corner of cell (0, 0)
+    private final int left;
+    private final int top;
 
-        int rows = pattern.length;
-        int cols = pattern[0].length;
+    private BufferedImage image;
+    private int[] pixels;
+    private boolean dirty = true;
+    //counts the hits that changed the cells; see getAppearance()
+    private int damageCount;
 
-        // Calculate starting position (top-left corner)
-        int startX = centerX - (cols * BRICK_SIZE) / 2;
-        int startY = centerY;
+    /**
+     * Creates a bunker whose top row of cells is centered on (centerX, centerY)
+     */
+    public Bunker(int centerX, int centerY) {
+        setTeam(Team.DEBRIS); // Neutral - can be hit by both player and aliens
+        setColor(Color.GREEN);
 
-        // Create bricks based on pattern
+        rows = PATTERN.length;
+        cols = PATTERN[0].length;
+        cells = new long[rows];
         for (int row = 0; row < rows; row++) {
             for (int col = 0; col < cols; col++) {
-                if (pattern[row][col] == 1) {
-                    int x = startX + (col * BRICK_SIZE);
-                    int y = startY + (row * BRICK_SIZE);
-                    Brick brick = new Brick(new Point(x, y), BRICK_SIZE);
-                    brick.setColor(Color.GREEN);
-                    bricks.add(brick);
+                if (PATTERN[row][col] == 1) cells[row] |= 1L << col;
+            }
+        }
+
+        // cells used to be centered on these points, keep the same footprint
+        left = centerX - (cols * CELL_SIZE) / 2 - CELL_SIZE / 2;
+        top = centerY - CELL_SIZE / 2;
+
+        // the center and radius circumscribe the whole grid, which is what the broadphase indexes
+        int width = cols * CELL_SIZE;
+        int height = rows * CELL_SIZE;
+        setCenter(new Point(left + width / 2, top + height / 2));
+        setRadius((int) Math.ceil(Math.hypot(width, height) / 2));
+    }
+
+    private static long[] createCrater() {
+        long[] crater = new long[CRATER_REACH * 2 + 1];
+        for (int dr = -CRATER_REACH; dr <= CRATER_REACH; dr++) {
+            for (int dc = -CRATER_REACH; dc <= CRATER_REACH; dc++) {
+                if ((dr * dr + dc * dc) * CELL_SIZE * CELL_SIZE < DAMAGE_RADIUS * DAMAGE_RADIUS) {
+                    crater[dr + CRATER_REACH] |= 1L << (dc + CRATER_REACH);
                 }
             }
         }
+        return crater;
     }
 
     /**
-     * Adds all bricks of this bunker to the game
+     * Sweeps a bullet of the given radius from (x0, y0) to (x1, y1) during the tick (see Swept) across the standing
+     * cells, and offers the first cell it touches to hit, as row * cols + col. A cell counts as touched when its center
+     * is closer than (bulletRadius + cell radius). Nothing changes until the caller settles on the hit and calls
+     * damage().
      */
-    public void addToGame() {
-        for (Brick brick : bricks) {
-            CommandCenter.getInstance().getOpsQueue().enqueue(brick, GameOp.Action.ADD);
+    public void sweep(int x0, int y0, int x1, int y1, int bulletRadius, Hit hit) {
+        int reach = bulletRadius + CELL_SIZE / 2;
+        // the path has to enter the grid, grown by reach, before it can touch any cell
+        double entry = Swept.segmentBox(x0, y0, x1, y1, left - reach, top - reach,
+                left + cols * CELL_SIZE + reach, top + rows * CELL_SIZE + reach);
+        if (entry == Swept.MISS || entry >= hit.getTime()) return;
+
+        int colMin = Math.max(0, Math.floorDiv(Math.min(x0, x1) - reach - left, CELL_SIZE));
+        int colMax = Math.min(cols - 1, Math.floorDiv(Math.max(x0, x1) + reach - left, CELL_SIZE));
+        int rowMin = Math.max(0, Math.floorDiv(Math.min(y0, y1) - reach - top, CELL_SIZE));
+        int rowMax = Math.min(rows - 1, Math.floorDiv(Math.max(y0, y1) + reach - top, CELL_SIZE));
+        if (colMin > colMax || rowMin > rowMax) return;
+
+        long span = spanMask(colMin, colMax);
+        for (int row = rowMin; row <= rowMax; row++) {
+            long candidates = cells[row] & span;
+            while (candidates != 0) {
+                int col = Long.numberOfTrailingZeros(candidates);
+                candidates &= candidates - 1;
+                hit.offer(Swept.segmentCircle(x0, y0, x1, y1, cellCenterX(col), cellCenterY(row), reach),
+                        this, row * cols + col);
+            }
         }
     }
 
     /**
-     * Returns all bricks in this bunker
+     * Destroys the cell that sweep() found (row * cols + col) and every cell within DAMAGE_RADIUS of it; the caller
+     * removes the bullet.
      */
-    public List<Brick> getBricks() {
-        return bricks;
+    public void damage(int cell) {
+        stampCrater(cell / cols, cell % cols);
+    }
+
+    private void stampCrater(int hitRow, int hitCol) {
+        for (int dr = -CRATER_REACH; dr <= CRATER_REACH; dr++) {
+            int row = hitRow + dr;
+            if (row < 0 || row >= rows) continue;
+            int shift = hitCol - CRATER_REACH;
+            long crater = shift >= 0 ? CRATER[dr + CRATER_REACH] << shift : CRATER[dr + CRATER_REACH] >>> -shift;
+            cells[row] &= ~crater;
+        }
+        dirty = true;
+        damageCount++;
+
+        // a bunker with nothing left standing leaves the game
+        if (isDestroyed()) CommandCenter.getInstance().getOpsQueue().enqueue(this, GameOp.Action.REMOVE);
+    }
+
+    public boolean isDestroyed() {
+        for (long row : cells) {
+            if (row != 0) return false;
+        }
+        return true;
+    }
+
+    public boolean isCellStanding(int row, int col) {
+        return row >= 0 && row < rows && col >= 0 && col < cols && (cells[row] & (1L << col)) != 0;
+    }
+
+    // number of cells still standing
+    public int getCellCount() {
+        int count = 0;
+        for (long row : cells) count += Long.bitCount(row);
+        return count;
+    }
+
+    public long[] getCells() {
+        return Arrays.copyOf(cells, rows);
+    }
+
+    private static long spanMask(int colMin, int colMax) {
+        int width = colMax - colMin + 1;
+        return (width == 64 ? -1L : (1L << width) - 1) << colMin;
+    }
+
+    private int cellCenterX(int col) {
+        return left + col * CELL_SIZE + CELL_SIZE / 2;
+    }
+
+    private int cellCenterY(int row) {
+        return top + row * CELL_SIZE + CELL_SIZE / 2;
+    }
+
+    @Override
+    public void move() {
+        // Bunkers don't move
+    }
+
+    //the grid of cells, which is all that draw() paints; it only changes when the bunker is hit
+    @Override
+    public void getDrawBounds(Rectangle bounds) {
+        bounds.setBounds(left, top, cols * CELL_SIZE, rows * CELL_SIZE);
+    }
+
+    @Override
+    public long getAppearance() {
+        return damageCount;
+    }
+
+    //a bunker only looks different after a hit
+    @Override
+    public boolean isBackground() {
+        return true;
+    }
+
+    @Override
+    public void draw(RenderSink sink) {
+        if (dirty) rebuildImage();
+        sink.drawImage(image, left, top);
+    }
+
+    //redraws the cached image from the bit grid; only called after a hit has changed the cells. The pixels are filled
+    //one span per run of standing cells and copied into the image in one go, so no Graphics context is needed (and
+    //the image stays eligible for acceleration, which grabbing its DataBuffer would prevent). Every rebuild draws into
+    //a new image: the old one may still be in a RenderSnapshot that is being drawn.
+    private void rebuildImage() {
+        int width = cols * CELL_SIZE;
+        int height = rows * CELL_SIZE;
+        image = new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB);
+        if (pixels == null) pixels = new int[width * height];
+        int argb = getColor().getRGB();
+
+        Arrays.fill(pixels, 0);
+        for (int row = 0; row < rows; row++) {
+            long bits = cells[row];
+            while (bits != 0) {
+                int start = Long.numberOfTrailingZeros(bits);
+                int end = Long.numberOfTrailingZeros(~(bits >>> start)) + start;
+                // fill this run of standing cells, CELL_SIZE pixel rows tall
+                for (int y = row * CELL_SIZE; y < (row + 1) * CELL_SIZE; y++) {
+                    Arrays.fill(pixels, y * width + start * CELL_SIZE, y * width + end * CELL_SIZE, argb);
+                }
+                bits &= end == 64 ? 0 : -1L << end;
+            }
+        }
+        image.setRGB(0, 0, width, height, pixels, 0, width);
+        dirty = false;
     }
 }
@@ -1,13 +1,15 @@
 package game.mvc.model;
 
 import game.mvc.controller.*;
-import lombok.Data;
+import game.mvc.model.prime.AtlasRegion;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.util.*;
 
-@Data
+@Getter
+@Setter
 public class LaserCannon extends Sprite {
 
     // ==============================================================
@@ -34,7 +36,7 @@ public class LaserCannon extends Sprite {
     }
 
 
-    //instance fields (getters/setters provided by Lombok @Data above)
+    //instance fields (getters/setters provided by Lombok @Getter/@Setter above)
     private int shield;
 
     private int nukeMeter;
@@ -71,8 +73,8 @@ public class LaserCannon extends Sprite {
         //We use HashMap which has a seek-time of O(1)
         //See the resources directory in the root of this project for pngs.
         //Using enums as keys is safer b/c we know the value exists when we reference the consts later in code.
-        Map<ImageState, BufferedImage> map = new HashMap<>();
-        BufferedImage img = ImageLoader.getImage("imgs/laser/laserCannon.png"); // no leading slash
+        Map<ImageState, AtlasRegion> map = new HashMap<>();
+        AtlasRegion img = ImageLoader.getRegion("imgs/laser/laserCannon.png"); // no leading slash
         System.out.println("Loaded image: " + img);  // should now not be null
         map.put(ImageState.laserCannon, img);
         setRasterMap(map);
@@ -85,12 +87,14 @@ public class LaserCannon extends Sprite {
     @Override
     public void move() {
         //The laserCannon is a convenient place to decrement the showLevel variable as the laserCannon
-        //move() method is being called every frame (~40ms); and the laserCannon reference is never null.
-        if (showLevel > 0) showLevel--;
+        //move() method is being called every tick; and the laserCannon reference is never null.
+        //Both counters count frames, of which zero or more may have passed during this tick.
+        int frames = CommandCenter.getInstance().getElapsedFrames();
+        if (showLevel > 0) showLevel = Math.max(0, showLevel - frames);
 
         // Handle respawn timer
         if (respawnTimer > 0) {
-            respawnTimer--;
+            respawnTimer = Math.max(0, respawnTimer - frames);
             if (respawnTimer == 0) {
                 // Timer finished, respawn now
                 respawnLaserCannon();
@@ -114,23 +118,21 @@ public class LaserCannon extends Sprite {
     // implementation for draw() (contract method from Movable) ,we inherit that contract debt, and therefore must
     // provide an implementation. This is a raster and vector (see drawShield below) implementation of draw().
     @Override
-    public void draw(Graphics g) {
-        BufferedImage img = getRasterMap().get(ImageState.laserCannon);
+    public void draw(RenderSink sink) {
+        AtlasRegion img = getRasterMap().get(ImageState.laserCannon);
 
         if (img != null) {
-            renderRaster((Graphics2D) g, img);
+            renderRaster(sink, img);
         } else {
             // fallback: yellow box for debugging
             Point c = getCenter();
-            g.setColor(Color.YELLOW);
-            g.fillRect(c.x - 25, c.y - 25, 50, 50);
-            g.setColor(Color.RED);
-            g.drawString("IMG NULL", c.x, c.y - 20);
+            sink.fillRect(c.x - 25, c.y - 25, 50, 50, Color.YELLOW);
+            sink.drawString("IMG NULL", c.x, c.y - 20, Color.RED);
         }
     }
 
     @Override
-    public void removeFromGame(LinkedList<Movable> list) {
+    public void removeFromGame(EntityList list) {
         //The laserCannon is never actually removed from the game-space; instead we decrement numlaserCannons
         // Prevent multiple hits in same frame
         if (isInvulnerable) {
@@ -140,7 +142,7 @@ public class LaserCannon extends Sprite {
         isInvulnerable = true; // Mark as hit
         SoundLoader.playSound("kapow.wav");
         // Spawn debris at current position before respawning
-        CommandCenter.getInstance().getOpsQueue().enqueue(new WhiteCloudDebris(this), GameOp.Action.ADD);
+        CommandCenter.getInstance().getOpsQueue().enqueue(WhiteCloudDebris.acquire(this), GameOp.Action.ADD);
 
         // Decrement lives and check if game over
         CommandCenter.getInstance().setNumlaserCannons(CommandCenter.getInstance().getNumlaserCannons() - 1);
@@ -152,15 +154,31 @@ public class LaserCannon extends Sprite {
 
         // Hide the laser cannon off-screen and start respawn timer
         setCenter(new Point(-1000, -1000)); // Move off-screen
+        markJumped();
         respawnTimer = RESPAWN_DELAY;
     }
 
 
+    //returns the laserCannon to the state it is constructed in
+    public void reset() {
+        placeAtStart();
+        shield = 0;
+        nukeMeter = 0;
+        showLevel = 0;
+        maxSpeedAttained = false;
+        thrusting = false;
+        turnState = TurnState.IDLE;
+    }
+
     public void respawnLaserCannon(){
         SoundLoader.playSound("shipspawn.wav");
-    
+        placeAtStart();
+    }
+
+    private void placeAtStart() {
         // Position at bottom center of screen
         setCenter(new Point(Game.DIM.width / 2, Game.DIM.height - 50));
+        markJumped();
         setOrientation(0); // Always face up
         setDeltaX(0);
         setDeltaY(0);
@@ -1,7 +1,7 @@
 package game.mvc.model;
 
+import game.mvc.controller.EntityList;
 import java.awt.*;
-import java.util.LinkedList;
 
 
 /* TODO This interface is an example of the Facade design pattern which provides a simplified
@@ -14,7 +14,43 @@ public interface Movable {
 
 	//for the game to move and draw movable objects. See the GamePanel class.
 	void move();
-	void draw(Graphics g);
+	void draw(RenderSink sink);
+
+	//called at the start of every simulation tick, before anything moves. Movables that are drawn at an interpolated
+	//position remember their current center here; see Sprite.
+	default void savePosition() {}
+
+	//where the center was at the start of the current tick, for the swept collision tests (see
+	//controller.collision.Swept); Movables that do not remember it are taken to have stood still
+	default void getPreviousCenter(Point previous) {
+		previous.setLocation(getCenter());
+	}
+
+	//value of getAppearance() for Movables that may look different in every frame
+	long CHANGING = Long.MIN_VALUE;
+
+	//the screen rectangle that draw() paints in this frame. The default is the square around the circle of
+	//getRadius(), plus a pixel for the stroke. The dirty-rectangle renderer (see view.DamageTracker) compares it with
+	//the rectangle of the previous frame, and only redraws what changed.
+	default void getDrawBounds(Rectangle bounds) {
+		Point center = getCenter();
+		int reach = getRadius() + 1;
+		bounds.setBounds(center.x - reach, center.y - reach, reach * 2 + 1, reach * 2 + 1);
+	}
+
+	//a value that changes whenever draw() would paint the same bounds differently (an animation frame, damage, ...),
+	//or CHANGING (the default) if that can happen in any frame. A Movable whose bounds and appearance did not change
+	//since the previous frame is not redrawn by the dirty-rectangle renderer.
+	default long getAppearance() {
+		return CHANGING;
+	}
+
+	//true for Movables that rarely change (the stars, the bunkers). The GamePanel draws them into a cached background
+	//image (see view.BackgroundLayer) instead of drawing them every frame, and redraws that image when their handle,
+	//draw bounds or appearance change; so they must report a real getAppearance().
+	default boolean isBackground() {
+		return false;
+	}
 
 	//for collision detection
 	Point getCenter();
@@ -23,13 +59,18 @@ public interface Movable {
 
 
 
+	//the handle the EntityRegistry issued when this was added to one of the team lists; EntityRegistry.NO_HANDLE
+	//while it is not in the game-space. Only EntityList sets it.
+	int getHandle();
+	void setHandle(int handle);
+
 	//lifecycle callbacks which occur before or after this object is added or removed from the game-space.
 	//this is your opportunity to add sounds or perform other side effects.
 	//The 'list' parameter will be one of the following: movFriends, movFoes, movDebris, movFloaters.
 	//See processGameOpsQueue() of Game class
-	void addToGame(LinkedList<Movable> list);
+	void addToGame(EntityList list);
 
-	void removeFromGame(LinkedList<Movable> list);
+	void removeFromGame(EntityList list);
 
 
 } //end Movable
@@ -1,11 +1,10 @@
 package game.mvc.model;
 
 import game.mvc.controller.*;
+import game.mvc.model.prime.AtlasRegion;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.util.HashMap;
-import java.util.LinkedList;
 import java.util.Map;
 
 public class MysteryUFO extends Sprite {
@@ -45,8 +44,8 @@ public class MysteryUFO extends Sprite {
         setDeltaY(0); // No vertical movement
 
         // Load UFO image
-        Map<MysteryUFO.ImageState, BufferedImage> ufoImages = new HashMap<>();
-        BufferedImage img = ImageLoader.getImage("imgs/aliens/mysteryUFO.png");
+        Map<MysteryUFO.ImageState, AtlasRegion> ufoImages = new HashMap<>();
+        AtlasRegion img = ImageLoader.getRegion("imgs/aliens/mysteryUFO.png");
         System.out.println("Loaded MysteryUFO image: " + img); 
         ufoImages.put(ImageState.MYSTERY_UFO, img);
         setRasterMap(ufoImages);
@@ -67,36 +66,34 @@ public class MysteryUFO extends Sprite {
     }
 
     @Override
-    public void draw(Graphics g) {
-        BufferedImage img = getRasterMap().get(ImageState.MYSTERY_UFO);
+    public void draw(RenderSink sink) {
+        AtlasRegion img = getRasterMap().get(ImageState.MYSTERY_UFO);
 
         if (img != null) {
-            renderRaster((Graphics2D) g, img);
+            renderRaster(sink, img);
         } else {
             // Fallback: red rectangle
             Point c = getCenter();
-            g.setColor(Color.RED);
-            g.fillRect(c.x - 25, c.y - 10, 50, 20);
-            g.setColor(Color.WHITE);
-            g.drawString("UFO", c.x - 10, c.y);
+            sink.fillRect(c.x - 25, c.y - 10, 50, 20, Color.RED);
+            sink.drawString("UFO", c.x - 10, c.y, Color.WHITE);
         }
     }
 
     @Override
-    public void addToGame(LinkedList<Movable> list) {
+    public void addToGame(EntityList list) {
         super.addToGame(list);
         // Play UFO sound when it appears
         SoundLoader.playSound("ufo_lowpitch.wav");
     }
 
     @Override
-    public void removeFromGame(LinkedList<Movable> list) {
+    public void removeFromGame(EntityList list) {
         super.removeFromGame(list);
 
         // Only award points if UFO was hit
         if (getExpiry() > 0) {
             // Spawn score display
-            CommandCenter.getInstance().getOpsQueue().enqueue(new UFOScoreDebris(this), GameOp.Action.ADD);
+            CommandCenter.getInstance().getOpsQueue().enqueue(UFOScoreDebris.acquire(this), GameOp.Action.ADD);
             CommandCenter.getInstance().setScore(CommandCenter.getInstance().getScore() + pointValue);
             SoundLoader.playSound("ufo_highpitch.wav"); // Different sound when hit
         }
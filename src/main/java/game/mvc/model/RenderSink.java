@@ -0,0 +1,35 @@
+package game.mvc.model;
+
+import game.mvc.model.prime.AtlasRegion;
+import game.mvc.model.prime.Outline;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+
+/* Everything a Movable may draw. Movables describe themselves through this interface and never touch a
+java.awt.Graphics, which keeps the model free of any rendering code: the game passes a RenderSink that draws with
+Graphics2D (see the view package), and a headless simulation never calls draw() at all.
+Colors, fonts and images are plain values that are safe to use without a screen.
+ */
+public interface RenderSink {
+
+	//draws the atlas region scaled to width x height, centered on (centerX, centerY) and rotated by orientation degrees
+	void drawRaster(AtlasRegion region, int centerX, int centerY, int width, int height, int orientation);
+
+	//draws an unscaled image with its top-left corner at (x, y)
+	void drawImage(BufferedImage image, int x, int y);
+
+	//draws the (already rotated and scaled) outline of a vector sprite, translated to (x, y)
+	void drawOutline(Outline outline, int x, int y, Color color);
+
+	void drawOval(int x, int y, int width, int height, Color color);
+
+	void fillRect(int x, int y, int width, int height, Color color);
+
+	//draws text with its baseline starting at (x, y), in the current font
+	void drawString(String text, int x, int y, Color color);
+
+	//draws text centered horizontally on centerX, and vertically around centerY
+	void drawCenteredString(String text, int centerX, int centerY, Font font, Color color);
+
+}
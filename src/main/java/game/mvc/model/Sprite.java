@@ -1,28 +1,28 @@
 package game.mvc.model;
 
 import game.mvc.controller.CommandCenter;
+import game.mvc.controller.EntityList;
 import game.mvc.controller.Game;
 
 import java.awt.*;
 import java.util.*;
-import java.util.List;
-import java.util.function.Function;
 
 import game.mvc.controller.GameOp;
-import game.mvc.controller.Utils;
-import game.mvc.model.prime.PolarPoint;
-import lombok.Data;
+import game.mvc.model.prime.AtlasRegion;
+import game.mvc.model.prime.Outline;
+import lombok.Getter;
+import lombok.Setter;
 
-import java.awt.geom.AffineTransform;
-import java.awt.image.BufferedImage;
 
-//the lombok @Data gives us automatic getters and setters on all members
+//the lombok @Getter and @Setter give us automatic getters and setters on all members. Sprites deliberately keep the
+//identity-based equals() and hashCode() of Object: two sprites are only ever equal if they are the same sprite.
 
-//A Sprite can be either vector or raster. We do not implement the draw(Graphics g) method, thereby forcing extending
+//A Sprite can be either vector or raster. We do not implement the draw(RenderSink sink) method, thereby forcing extending
 // classes to implement draw() depending on their graphics mode: vector or raster.  See laserCannon, and WhiteCloudDebris
 // classes for raster implementation of draw(). See ShieldFloater, Bullet, or Asteroid for vector implementations of
 // draw().
-@Data
+@Getter
+@Setter
 public abstract class Sprite implements Movable {
 
 
@@ -32,6 +32,9 @@ public abstract class Sprite implements Movable {
     //this causes movement; change-in-x and change-in-y
     private double deltaX, deltaY;
 
+    //see Movable.getHandle()
+    private int handle;
+
     //every sprite has a team: friend, foe, floater, or debris.
     private Team team;
     //the radius of circumscribing/inscribing circle
@@ -48,15 +51,26 @@ public abstract class Sprite implements Movable {
 
     //these are Cartesian points used to draw the polygon in vector mode.
     //Once set, their values do not change. It's the job of the renderVector() method to adjust for orientation and
-    // location.
+    // location. Rendered outlines are cached per array (see Outline), so share one array among sprites of a type.
     private Point[] cartesians;
 
     //used for vector rendering
     private Color color;
 
-    //Either you use the cartesian points and color above (vector), or you can use the BufferedImages here (raster).
+    //sub-pixel movement carried over to the next tick, so slow sprites still move at the right speed at any tick rate
+    private double remainderX, remainderY;
+
+    //the center-point at the start of the current tick, used to draw the sprite between ticks
+    private int previousX, previousY;
+    private boolean positionSaved;
+    //set when the sprite was put somewhere else during this tick (wrapped around the universe, respawned), rather
+    //than moved there; it is then neither interpolated nor swept. See markJumped().
+    private boolean jumped;
+
+    //Either you use the cartesian points and color above (vector), or you can use the images here (raster), which are
+    //regions of the ImageLoader's texture atlas.
     //Keys in this map can be any object (?) you want. See laserCannon and WhiteCloudDebris for example implementations.
-    private Map<?, BufferedImage> rasterMap;
+    private Map<?, AtlasRegion> rasterMap;
 
 
     //constructor
@@ -69,6 +83,26 @@ public abstract class Sprite implements Movable {
 
     }
 
+    //for pooled sprites (see SpritePool), which place themselves every time they are acquired. Unlike the constructor
+    //above this does not draw from Game.R, so whether a sprite comes from the pool or is new makes no difference to
+    //the random sequence of a seeded game.
+    protected Sprite(Point center) {
+        setCenter(center);
+    }
+
+    //puts the state that move() accumulates back to that of a new sprite; pooled sprites call this when acquired,
+    //and then set everything else they use
+    protected void recycle() {
+        deltaX = 0;
+        deltaY = 0;
+        orientation = 0;
+        expiry = 0;
+        spin = 0;
+        remainderX = 0;
+        remainderY = 0;
+        positionSaved = false;
+    }
+
 
 
     /* TODO The following methods are an example of the Template_Method design pattern. The Sprite class provides
@@ -92,37 +126,97 @@ public abstract class Sprite implements Movable {
         //right-bounds reached
         if (center.x > scalarX * Game.DIM.width) {
             center.x = 1;
+            markJumped();
         //left-bounds reached
         } else if (center.x < 0) {
             center.x = scalarX * Game.DIM.width -1;
+            markJumped();
         //bottom-bounds reached
         } else if (center.y > scalarY * Game.DIM.height) {
             center.y = 1;
+            markJumped();
         //top-bounds reached
         } else if (center.y < 0) {
             center.y = scalarY * Game.DIM.height -1;
+            markJumped();
         //in-bounds
         } else {
-            double newXPos = center.x;
-            double newYPos = center.y;
+            //deltaX and deltaY are pixels per frame; a tick may be shorter than a frame, see Game.TICK_SCALE
+            double moveX = getDeltaX();
+            double moveY = getDeltaY();
             //if laserCannon-fixed, move the sprite in the opposite direction of the laserCannon to create centered-play
             if (CommandCenter.getInstance().islaserCannonPositionFixed()){
-                newXPos -= CommandCenter.getInstance().getLaserCannon().getDeltaX();
-                newYPos -= CommandCenter.getInstance().getLaserCannon().getDeltaY();
+                moveX -= CommandCenter.getInstance().getLaserCannon().getDeltaX();
+                moveY -= CommandCenter.getInstance().getLaserCannon().getDeltaY();
             }
-            center.x = (int) Math.round(newXPos + getDeltaX());
-            center.y = (int) Math.round(newYPos + getDeltaY());
+            double newXPos = center.x + remainderX + moveX * Game.TICK_SCALE;
+            double newYPos = center.y + remainderY + moveY * Game.TICK_SCALE;
+            center.x = (int) Math.round(newXPos);
+            center.y = (int) Math.round(newYPos);
+            remainderX = newXPos - center.x;
+            remainderY = newYPos - center.y;
+        }
+
+        //expiry and spin count whole frames, however many of them passed during this tick
+        for (int frames = CommandCenter.getInstance().getElapsedFrames(); frames > 0; frames--) {
+            //expire (decrement expiry) on short-lived objects only
+            //the default value of expiry is zero, so this block will only apply to expiring sprites
+            if (expiry > 0) expire();
+
+            //if a sprite spins, adjust its orientation
+            //the default value of spin is zero, therefore non-spinning objects will not call this block.
+            if (spin != 0) orientation += spin;
+        }
+
+
+    }
+
+    @Override
+    public void savePosition() {
+        previousX = center.x;
+        previousY = center.y;
+        positionSaved = true;
+        jumped = false;
+    }
+
+    //for code that puts the sprite somewhere new instead of moving it there: until the next tick it is drawn and
+    //collision tested where it is, rather than along a path from where it was
+    public void markJumped() {
+        jumped = true;
+    }
+
+    //where the sprite was at the start of the tick; where it is now if it was only just added, or jumped
+    @Override
+    public void getPreviousCenter(Point previous) {
+        if (!positionSaved || jumped) {
+            previous.setLocation(center);
+        } else {
+            previous.setLocation(previousX, previousY);
         }
+    }
 
-        //expire (decrement expiry) on short-lived objects only
-        //the default value of expiry is zero, so this block will only apply to expiring sprites
-        if (expiry > 0) expire();
+    //the x and y coordinates at which to draw this sprite: between where it was at the start of the last tick and
+    //where it is now, see CommandCenter.getRenderAlpha()
+    protected int renderX() {
+        return interpolate(previousX, center.x);
+    }
 
-        //if a sprite spins, adjust its orientation
-        //the default value of spin is zero, therefore non-spinning objects will not call this block.
-        if (spin != 0) orientation += spin;
+    protected int renderY() {
+        return interpolate(previousY, center.y);
+    }
 
+    //around the interpolated center; a rotated raster reaches into the corners of its square, which are up to
+    //sqrt(2) times the radius away from the center
+    @Override
+    public void getDrawBounds(Rectangle bounds) {
+        int reach = (orientation % 90 == 0 ? getRadius() : (int) Math.ceil(getRadius() * Math.sqrt(2))) + 1;
+        bounds.setBounds(renderX() - reach, renderY() - reach, reach * 2 + 1, reach * 2 + 1);
+    }
 
+    private int interpolate(int previous, int current) {
+        //sprites that were just added, or that jumped (wrapped around the universe, respawned), are drawn where they are
+        if (!positionSaved || jumped) return current;
+        return (int) Math.round(previous + (current - previous) * CommandCenter.getInstance().getRenderAlpha());
     }
 
     private void expire() {
@@ -145,120 +239,43 @@ public abstract class Sprite implements Movable {
     }
 
 
-    //https://www.tabnine.com/code/java/methods/java.awt.geom.AffineTransform/rotate
-    protected void renderRaster(Graphics2D g2d, BufferedImage bufferedImage) {
-
-        if (bufferedImage ==  null) return;
+    //draws the image scaled to the diameter of this sprite, rotated by its orientation; see RenderSink.drawRaster()
+    protected void renderRaster(RenderSink sink, AtlasRegion region) {
 
-        int centerX = getCenter().x;
-        int centerY = getCenter().y;
-        int width = getRadius() * 2;
-        int height = getRadius() * 2;
-        double angleRadians = Math.toRadians(getOrientation());
+        if (region ==  null) return;
 
-        AffineTransform oldTransform = g2d.getTransform();
-        try {
-            double scaleX = width * 1.0 / bufferedImage.getWidth();
-            double scaleY = height * 1.0 / bufferedImage.getHeight();
-
-            AffineTransform affineTransform = new AffineTransform( oldTransform );
-            if ( centerX != 0 || centerY != 0 ) {
-                affineTransform.translate( centerX, centerY );
-            }
-            affineTransform.scale( scaleX, scaleY );
-            if ( angleRadians != 0 ) {
-                affineTransform.rotate( angleRadians );
-            }
-            affineTransform.translate( -bufferedImage.getWidth() / 2.0, -bufferedImage.getHeight() / 2.0 );
+        sink.drawRaster(region, renderX(), renderY(), getRadius() * 2, getRadius() * 2, getOrientation());
+    }
 
-            g2d.setTransform( affineTransform );
+    protected void renderVector(RenderSink sink) {
 
-            g2d.drawImage( bufferedImage, 0, 0, bufferedImage.getWidth(), bufferedImage.getHeight(), null );
-        } finally {
-            g2d.setTransform( oldTransform );
+        // To render this Sprite in vector mode, the raw cartesians must be rotated for the orientation of the sprite,
+        // scaled to its radius, and then adjusted for its center-point (location). The first two steps only depend on
+        // the cartesians, orientation and radius, so the Outline cache computes them once (see Outline.of()) and
+        // every later frame just translates the cached int[] coords to the center of the sprite.
+        // The y-values are flipped, which has to do with how Java plots the vertical axis for graphics (from top to
+        // bottom)
+        Outline outline = Outline.of(cartesians, orientation, getRadius(), true);
 
-        }
-    }
+        //draw the outline in the color of the sprite
+        sink.drawOutline(outline, renderX(), renderY(), color);
 
-    protected void renderVector(Graphics g) {
-
-        //set the graphics context color to the color of the sprite
-        g.setColor(color);
-
-        // To render this Sprite in vector mode, we need to, 1: convert raw cartesians to raw polars, 2: rotate polars
-        // for orientation of sprite. 3: Convert back to cartesians 4: adjust for center-point (location).
-        // and 5: pass the cartesian-x and cartesian-y coords as arrays, along with length, to g.drawPolygon().
-
-        //1: convert raw cartesians to raw polars (used later in stream below).
-        //The reason we convert cartesian-points to polar-points is that it's much easier to rotate polar-points
-        List<PolarPoint> polars = Utils.cartesiansToPolars(cartesians);
-
-        //The following 3 functions are used in map transforms in stream of polars below.
-        //2: rotate raw polars given the orientation of the sprite.
-        Function<PolarPoint, PolarPoint> rotatePolarByOrientation =
-                pp -> new PolarPoint(
-                        pp.getR(),
-                        pp.getTheta() + Math.toRadians(orientation) //rotated Theta
-                );
-
-        //3: convert the rotated polars back to cartesians
-        Function<PolarPoint, Point> polarToCartesian =
-                pp -> new Point(
-                        (int)  (pp.getR() * getRadius() * Math.sin(pp.getTheta())),
-                        (int)  (pp.getR() * getRadius() * Math.cos(pp.getTheta())));
-
-        //4: adjust the cartesians for the location (center-point) of the sprite.
-        // the reason we subtract the y-value has to do with how Java plots the vertical axis for
-        // graphics (from top to bottom)
-        Function<Point, Point> adjustForLocation =
-                p -> new Point(
-                         getCenter().x + p.x,
-                         getCenter().y - p.y);
-
-
-
-
-        //5: draw the polygon using the List of raw polars from above, applying mapping transforms as required.
-        /*TODO The following is an example of the Pipeline design pattern, which is a way of chaining a series of operations
-        where the output of one operation becomes the input for the next, forming a "pipeline" of transformations and
-        processing steps. This is a key concept in functional programming.
-         */
-        g.drawPolygon(
-                polars.stream()
-                        .map(rotatePolarByOrientation)
-                        .map(polarToCartesian)
-                        .map(adjustForLocation)
-                        .map(pnt -> pnt.x)
-                        .mapToInt(Integer::intValue)
-                        .toArray(),
-
-                polars.stream()
-                        .map(rotatePolarByOrientation)
-                        .map(polarToCartesian)
-                        .map(adjustForLocation)
-                        .map(pnt -> pnt.y)
-                        .mapToInt(Integer::intValue)
-                        .toArray(),
-
-                polars.size());
-
-        //for debugging center-point and collision. Feel free to remove these three lines.
+        //for debugging center-point and collision. Feel free to remove these two lines.
         //#########################################
-        //g.setColor(Color.GRAY);
-        //g.fillOval(getCenter().x - 1, getCenter().y - 1, 2, 2);
-        //g.drawOval(getCenter().x - getRadius(), getCenter().y - getRadius(), getRadius() *2, getRadius() *2);
+        //sink.drawOval(getCenter().x - 1, getCenter().y - 1, 2, 2, Color.GRAY);
+        //sink.drawOval(getCenter().x - getRadius(), getCenter().y - getRadius(), getRadius() *2, getRadius() *2, Color.GRAY);
         //#########################################
     }
 
     //default behavior for adding and removing objects from game space.
     //The 'list' parameter will be one of the following: movFriends, movFoes, movDebris, movFloaters.
     @Override
-    public void addToGame(LinkedList<Movable> list) {
+    public void addToGame(EntityList list) {
         list.add(this);
     }
 
     @Override
-    public void removeFromGame(LinkedList<Movable> list) {
+    public void removeFromGame(EntityList list) {
         list.remove(this);
     }
 
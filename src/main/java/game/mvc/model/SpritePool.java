@@ -0,0 +1,88 @@
+package game.mvc.model;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Supplier;
+
+/**
+ * A free list of short-lived sprites of one type (bullets, debris), so that steady-state combat recycles sprites
+ * instead of allocating new ones. The pooled class hands out instances from a static acquire() method that resets
+ * every field it uses, and puts them back with release() from its removeFromGame(), once the sprite has really left
+ * its list. A sprite that is not released (a reset session drops the team lists) is simply garbage collected.
+ *
+ * Pools are only used by the simulation thread. Every pool registers itself, so that its counters can be read through
+ * all() (see FrameMetricsMXBean.getPoolIdle() and getPoolCreated()). Those readers run on other threads; the counters
+ * only have one writer, the simulation thread, so they are volatile and written with plain x = x + 1: the readers
+ * see a recent value, and no update is lost.
+ */
+public class SpritePool<T extends Sprite> {
+
+    private static final List<SpritePool<?>> POOLS = Collections.synchronizedList(new ArrayList<>());
+
+    private final String name;
+    private final Supplier<T> factory;
+    //idle sprites beyond this are left to the garbage collector, so a one-off burst does not pin memory forever
+    private final int maxIdle;
+
+    private Sprite[] idle = new Sprite[16];
+    private volatile int numIdle;
+    private volatile long created;
+    private volatile long acquired;
+
+    public SpritePool(String name, Supplier<T> factory, int maxIdle) {
+        this.name = name;
+        this.factory = factory;
+        this.maxIdle = maxIdle;
+        POOLS.add(this);
+    }
+
+    //an idle sprite, or a new one if there is none; the caller resets it
+    @SuppressWarnings("unchecked")
+    public T acquire() {
+        acquired = acquired + 1;
+        if (numIdle == 0) {
+            created = created + 1;
+            return factory.get();
+        }
+        int index = numIdle - 1;
+        numIdle = index;
+        T sprite = (T) idle[index];
+        idle[index] = null;
+        return sprite;
+    }
+
+    //the sprite must no longer be in the game, and must not be released twice
+    public void release(T sprite) {
+        int index = numIdle;
+        if (index == maxIdle) return;
+        if (index == idle.length) idle = Arrays.copyOf(idle, Math.min(index * 2, maxIdle));
+        idle[index] = sprite;
+        numIdle = index + 1;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getIdle() {
+        return numIdle;
+    }
+
+    //number of sprites this pool had to allocate; stops growing once the pool has warmed up
+    public long getCreated() {
+        return created;
+    }
+
+    public long getAcquired() {
+        return acquired;
+    }
+
+    //every pool created so far
+    public static List<SpritePool<?>> all() {
+        synchronized (POOLS) {
+            return new ArrayList<>(POOLS);
+        }
+    }
+}
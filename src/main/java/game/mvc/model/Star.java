@@ -1,19 +1,23 @@
 package game.mvc.model;
 
 import game.mvc.controller.CommandCenter;
+import game.mvc.controller.EntityList;
 import game.mvc.controller.Game;
-import lombok.Data;
+import lombok.Getter;
+import lombok.Setter;
 
 import java.awt.*;
-import java.util.LinkedList;
 
 //Sprite has a lot of bloat that we don't need to simply render a star field.
 //This class demonstrates how we can use the Movable interface without extending Sprite.
-@Data
+@Getter
+@Setter
 public class Star implements Movable{
 
     private Point center;
     private Color color;
+    //see Movable.getHandle()
+    private int handle;
 
     public Star() {
         //center is some random point in the game space
@@ -24,13 +28,29 @@ public class Star implements Movable{
 
     //The following methods are contract methods from Movable. We need all of them to satisfy the contract.
     @Override
-    public void draw(Graphics g) {
+    public void draw(RenderSink sink) {
 
-        g.setColor(color);
-        g.drawOval(center.x, center.y, getRadius(), getRadius());
+        sink.drawOval(center.x, center.y, getRadius(), getRadius(), color);
 
     }
 
+    //a star is a 1x1 oval, and never changes color
+    @Override
+    public void getDrawBounds(Rectangle bounds) {
+        bounds.setBounds(center.x, center.y, 2, 2);
+    }
+
+    @Override
+    public long getAppearance() {
+        return 0;
+    }
+
+    //stars only move in a universe where the laserCannon's position is fixed, and then the background is redrawn
+    @Override
+    public boolean isBackground() {
+        return true;
+    }
+
     @Override
     public Point getCenter() {
         return center;
@@ -72,8 +92,8 @@ public class Star implements Movable{
             //in-bounds
         } else {
             //move star in opposite direction of laserCannon.
-            center.x = (int) Math.round(center.x - CommandCenter.getInstance().getLaserCannon().getDeltaX());
-            center.y = (int) Math.round(center.y - CommandCenter.getInstance().getLaserCannon().getDeltaY());
+            center.x = (int) Math.round(center.x - CommandCenter.getInstance().getLaserCannon().getDeltaX() * Game.TICK_SCALE);
+            center.y = (int) Math.round(center.y - CommandCenter.getInstance().getLaserCannon().getDeltaY() * Game.TICK_SCALE);
         }
 
 
@@ -82,12 +102,12 @@ public class Star implements Movable{
 
 
     @Override
-    public void addToGame(LinkedList<Movable> list) {
+    public void addToGame(EntityList list) {
         list.add(this);
     }
 
     @Override
-    public void removeFromGame(LinkedList<Movable> list) {
+    public void removeFromGame(EntityList list) {
        list.remove(this);
     }
 
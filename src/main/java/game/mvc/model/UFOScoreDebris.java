@@ -1,40 +1,47 @@
 package game.mvc.model;
 
+import game.mvc.controller.EntityList;
+
 import java.awt.*;
 
 public class UFOScoreDebris extends Sprite {
     private static final int SHOW_TIME = 60; // frames to show score (1.5 seconds)
-    private final int pointValue;
+    private static final Font FONT = new Font("SansSerif", Font.BOLD, 18);
+    private int pointValue;
+    private String scoreText;
+
+    private static final SpritePool<UFOScoreDebris> POOL = new SpritePool<>("UFOScoreDebris", UFOScoreDebris::new, 4);
 
-    public UFOScoreDebris(MysteryUFO destroyedUFO) {
+    private UFOScoreDebris() {
+        super(new Point());
         setTeam(Team.DEBRIS);
+        setRadius(30);
+        setColor(Color.RED); // Match UFO color
+    }
+
+    //the score of destroyedUFO, shown where it was hit; from the pool, see SpritePool
+    public static UFOScoreDebris acquire(MysteryUFO destroyedUFO) {
+        UFOScoreDebris debris = POOL.acquire();
+        debris.recycle();
 
         // Copy position from destroyed UFO
-        setCenter((Point) destroyedUFO.getCenter().clone());
-        setDeltaX(0);
-        setDeltaY(0);
-        setRadius(30);
+        debris.getCenter().setLocation(destroyedUFO.getCenter());
 
-        // Store the point value to display
-        pointValue = destroyedUFO.getPointValue();
+        // Store the point value to display; there are only a few different values, so the text is only rebuilt when
+        // the value changes
+        if (debris.scoreText == null || debris.pointValue != destroyedUFO.getPointValue()) {
+            debris.pointValue = destroyedUFO.getPointValue();
+            debris.scoreText = String.valueOf(debris.pointValue);
+        }
 
-        setExpiry(SHOW_TIME);
-        setColor(Color.RED); // Match UFO color
+        debris.setExpiry(SHOW_TIME);
+        return debris;
     }
 
     @Override
-    public void draw(Graphics g) {
-        g.setColor(getColor());
-        g.setFont(new Font("SansSerif", Font.BOLD, 18));
-
+    public void draw(RenderSink sink) {
         // Draw the point value centered at the UFO's position
-        String scoreText = String.valueOf(pointValue);
-        FontMetrics fm = g.getFontMetrics();
-        int textWidth = fm.stringWidth(scoreText);
-
-        g.drawString(scoreText,
-                getCenter().x - textWidth / 2,
-                getCenter().y + fm.getAscent() / 2);
+        sink.drawCenteredString(scoreText, getCenter().x, getCenter().y, FONT, getColor());
     }
 
     @Override
@@ -42,4 +49,9 @@ public class UFOScoreDebris extends Sprite {
         // Score display doesn't move, but parent handles expiry
         super.move();
     }
+
+    @Override
+    public void removeFromGame(EntityList list) {
+        if (list.remove(this)) POOL.release(this);
+    }
 }
@@ -1,48 +1,59 @@
 package game.mvc.model;
 
 
+import game.mvc.controller.EntityList;
 import game.mvc.controller.ImageLoader;
+import game.mvc.model.prime.AtlasRegion;
 
 import java.awt.*;
-import java.awt.image.BufferedImage;
 import java.util.HashMap;
 import java.util.Map;
 
 public class WhiteCloudDebris extends Sprite{
 
-   private int index = 0;
    //the higher the number, the slower the animation
    private final static int SLOW_MO = 3;
 
-    public WhiteCloudDebris(Sprite explodingSprite) {
+    //see readme.txt file in the resources/imgs/exp directory for how I created these assets. Shared by all clouds.
+    private static final Map<Integer, AtlasRegion> RASTER_MAP = new HashMap<>();
+    static {
+        RASTER_MAP.put(0, ImageLoader.getRegion("imgs/exp/row-1-column-1.png"));
+        RASTER_MAP.put(1, ImageLoader.getRegion("imgs/exp/row-1-column-2.png"));
+        RASTER_MAP.put(2, ImageLoader.getRegion("imgs/exp/row-1-column-3.png"));
+        RASTER_MAP.put(3, ImageLoader.getRegion("imgs/exp/row-2-column-1.png"));
+        RASTER_MAP.put(4, ImageLoader.getRegion("imgs/exp/row-2-column-2.png"));
+        RASTER_MAP.put(5, ImageLoader.getRegion("imgs/exp/row-2-column-3.png"));
+        RASTER_MAP.put(6, ImageLoader.getRegion("imgs/exp/row-3-column-1.png"));
+        RASTER_MAP.put(7, ImageLoader.getRegion("imgs/exp/row-3-column-2.png"));
+        RASTER_MAP.put(8, ImageLoader.getRegion("imgs/exp/row-3-column-3.png"));
+    }
+
+    private static final SpritePool<WhiteCloudDebris> POOL =
+            new SpritePool<>("WhiteCloudDebris", WhiteCloudDebris::new, 16);
+
+    private WhiteCloudDebris() {
+        super(new Point());
 
         //DEBRIS means that this sprite is inert, and does not interact with other teams.
         setTeam(Team.DEBRIS);
+        setRasterMap(RASTER_MAP);
+    }
 
-        Map<Integer, BufferedImage> rasterMap = new HashMap<>();
-        //see readme.txt file in the resources/imgs/exp directory for how I created these assets
-        rasterMap.put(0, ImageLoader.getImage("imgs/exp/row-1-column-1.png"));
-        rasterMap.put(1, ImageLoader.getImage("imgs/exp/row-1-column-2.png"));
-        rasterMap.put(2, ImageLoader.getImage("imgs/exp/row-1-column-3.png"));
-        rasterMap.put(3, ImageLoader.getImage("imgs/exp/row-2-column-1.png"));
-        rasterMap.put(4, ImageLoader.getImage("imgs/exp/row-2-column-2.png"));
-        rasterMap.put(5, ImageLoader.getImage("imgs/exp/row-2-column-3.png"));
-        rasterMap.put(6, ImageLoader.getImage("imgs/exp/row-3-column-1.png"));
-        rasterMap.put(7, ImageLoader.getImage("imgs/exp/row-3-column-2.png"));
-        rasterMap.put(8, ImageLoader.getImage("imgs/exp/row-3-column-3.png"));
-
-        setRasterMap(rasterMap);
+    //the dust cloud of explodingSprite; from the pool, see SpritePool
+    public static WhiteCloudDebris acquire(Sprite explodingSprite) {
+        WhiteCloudDebris cloud = POOL.acquire();
+        cloud.recycle();
 
         //expire it out after it has done its animation. Multiply by SLOW_MO to slow down the animation
-        setExpiry(rasterMap.size() * SLOW_MO);
+        cloud.setExpiry(RASTER_MAP.size() * SLOW_MO);
 
         //everything is relative to the exploding sprite
-        setSpin(explodingSprite.getSpin());
-        setCenter((Point)explodingSprite.getCenter().clone());
-        setDeltaX(explodingSprite.getDeltaX());
-        setDeltaY(explodingSprite.getDeltaY());
-        setRadius((int) (explodingSprite.getRadius() * 1.3));
-
+        cloud.setSpin(explodingSprite.getSpin());
+        cloud.getCenter().setLocation(explodingSprite.getCenter());
+        cloud.setDeltaX(explodingSprite.getDeltaX());
+        cloud.setDeltaY(explodingSprite.getDeltaY());
+        cloud.setRadius((int) (explodingSprite.getRadius() * 1.3));
+        return cloud;
     }
 
     //In this example, we are simply in-order traversing the rasterMap once.
@@ -51,14 +62,20 @@ public class WhiteCloudDebris extends Sprite{
     //walking (looping), standing (suspended loop), jumping (one state), crouching (another state).
     //See laserCannon class for example of image-state.
     @Override
-    public void draw(Graphics g) {
+    public void draw(RenderSink sink) {
+
 
+        //hold each image for SLOW_MO frames to slow down the dust cloud animation
+        //we already have a simple decrement-to-zero counter with expiry; see move() method of Sprite. Deriving the
+        //index from it (rather than counting draw() calls) keeps the animation speed independent of the frame rate.
+        int index = Math.min((getRasterMap().size() * SLOW_MO - getExpiry()) / SLOW_MO, getRasterMap().size() - 1);
+        renderRaster(sink, getRasterMap().get(index));
 
-        renderRaster((Graphics2D) g, getRasterMap().get(index));
-        //hold the image for SLOW_MO frames to slow down the dust cloud animation
-        //we already have a simple decrement-to-zero counter with expiry; see move() method of Sprite.
-        if (getExpiry() % SLOW_MO == 0) index++;
 
+    }
 
+    @Override
+    public void removeFromGame(EntityList list) {
+        if (list.remove(this)) POOL.release(this);
     }
 }
@@ -0,0 +1,44 @@
+package game.mvc.model.prime;
+
+import lombok.Getter;
+
+import java.awt.image.BufferedImage;
+
+//A sub-rectangle of a texture atlas (see controller.TextureAtlas): the handle through which raster sprites refer to
+//their images. Every region of an atlas shares its one image, so drawing a region is a blit from a source rectangle,
+//never a draw of a separate image. Regions are compared by identity, which makes them cheap map keys.
+//Handles exist from the start, but images are decoded in the background (see controller.AssetLoader), so a region is
+//only drawn once it isLoaded().
+@Getter
+public final class AtlasRegion {
+
+    private final String name;
+    //null until the atlas has been packed; written last, so a non-null atlas means x, y, width and height are set
+    private volatile BufferedImage atlas;
+    private int x;
+    private int y;
+    private int width;
+    private int height;
+
+    public AtlasRegion(String name) {
+        this.name = name;
+    }
+
+    public boolean isLoaded() {
+        return atlas != null;
+    }
+
+    //places the region in the packed atlas; called once, by the thread that packed it
+    public void resolve(BufferedImage atlas, int x, int y, int width, int height) {
+        this.x = x;
+        this.y = y;
+        this.width = width;
+        this.height = height;
+        this.atlas = atlas;
+    }
+
+    @Override
+    public String toString() {
+        return name + (isLoaded() ? "[" + x + "," + y + " " + width + "x" + height + "]" : "[loading]");
+    }
+}
@@ -0,0 +1,90 @@
+package game.mvc.model.prime;
+
+import lombok.Data;
+
+import java.awt.*;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import game.mvc.controller.Utils;
+
+//An Outline is a vector shape that has already been rotated and scaled, relative to a center-point of (0, 0).
+//Drawing it only requires translating to the sprite's center, so nothing is computed or allocated per frame.
+@Data
+public class Outline {
+
+    private final int[] xs;
+    private final int[] ys;
+
+    //cartesian arrays are cached by identity, so sprites of the same type should share one static Point[]
+    private static final Map<Point[], Shape> SHAPES = new IdentityHashMap<>();
+    //guards against sprites that build a fresh Point[] per instance; the cache is simply dropped when it grows this large
+    private static final int MAX_SHAPES = 256;
+
+    public int size() {
+        return xs.length;
+    }
+
+    /**
+     * Returns the outline of the cartesian points rotated by orientation (degrees) and scaled to radius, exactly as
+     * Sprite.renderVector() used to compute it every frame. With flipY, the y-values are negated, because Java plots
+     * the vertical axis from top to bottom.
+     */
+    public static Outline of(Point[] cartesians, int orientation, int radius, boolean flipY) {
+        Shape shape = SHAPES.get(cartesians);
+        if (shape == null) {
+            if (SHAPES.size() >= MAX_SHAPES) SHAPES.clear();
+            shape = new Shape(cartesians);
+            SHAPES.put(cartesians, shape);
+        }
+        return shape.outline(Math.floorMod(orientation, 360), radius, flipY);
+    }
+
+    //the polar form of one cartesian array, and the outlines built from it so far
+    private static class Shape {
+
+        private final double[] rs;
+        private final double[] thetas;
+        //radius -> outlines indexed by (orientation * 2 + flip). Radii are small, so Integer keys are never allocated.
+        private final Map<Integer, Outline[]> byRadius = new HashMap<>();
+
+        private Shape(Point[] cartesians) {
+            List<PolarPoint> polars = Utils.cartesiansToPolars(cartesians);
+            rs = new double[polars.size()];
+            thetas = new double[polars.size()];
+            for (int i = 0; i < rs.length; i++) {
+                rs[i] = polars.get(i).getR();
+                thetas[i] = polars.get(i).getTheta();
+            }
+        }
+
+        private Outline outline(int orientation, int radius, boolean flipY) {
+            Outline[] outlines = byRadius.get(radius);
+            if (outlines == null) {
+                outlines = new Outline[360 * 2];
+                byRadius.put(radius, outlines);
+            }
+            int index = orientation * 2 + (flipY ? 1 : 0);
+            Outline outline = outlines[index];
+            if (outline == null) {
+                outline = build(orientation, radius, flipY);
+                outlines[index] = outline;
+            }
+            return outline;
+        }
+
+        private Outline build(int orientation, int radius, boolean flipY) {
+            int[] xs = new int[rs.length];
+            int[] ys = new int[rs.length];
+            for (int i = 0; i < rs.length; i++) {
+                double theta = thetas[i] + Math.toRadians(orientation);
+                xs[i] = (int) (rs[i] * radius * Math.sin(theta));
+                int y = (int) (rs[i] * radius * Math.cos(theta));
+                ys[i] = flipY ? -y : y;
+            }
+            return new Outline(xs, ys);
+        }
+    }
+}
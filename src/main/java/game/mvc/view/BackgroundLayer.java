@@ -0,0 +1,123 @@
+package game.mvc.view;
+
+import game.mvc.model.Movable;
+import game.mvc.model.RenderSink;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+
+/**
+ * The black background with every background Movable (see Movable.isBackground(): the stars and the bunkers) drawn
+ * onto it, cached in one image. A frame starts with a single drawImage() of that image, instead of a fill and a draw
+ * call per star and bunker.
+ *
+ * The image is only redrawn when it is stale: every frame, update() compares the handle, draw bounds and appearance of
+ * each background entry of the RenderSnapshot with those it drew last, which catches a bunker that was hit or
+ * destroyed, a star that moved and a new level's bunkers. Anything else that changes the background (the universe,
+ * the screen device) has to call invalidate().
+ *
+ * Without a GraphicsConfiguration the image is a plain RGB image, which is cleared and has its stars plotted straight
+ * into its pixels (see PixelRenderSink).
+ */
+public class BackgroundLayer {
+
+    private final int width;
+    private final int height;
+    private final GraphicsRenderSink sink = new GraphicsRenderSink();
+    //for a plain RGB image, whose pixels the stars are plotted into directly
+    private final PixelRenderSink pixelSink = new PixelRenderSink(sink);
+    private int[] pixels;
+    private final Rectangle bounds = new Rectangle();
+
+    private BufferedImage image;
+    private boolean invalid = true;
+    //three longs per background Movable in the image: handle, draw position, appearance; see matches()
+    private long[] drawn = new long[3 * 128];
+    private int numDrawn;
+    private long rebuilds;
+
+    public BackgroundLayer(int width, int height) {
+        this.width = width;
+        this.height = height;
+    }
+
+    public void invalidate() {
+        invalid = true;
+    }
+
+    /**
+     * Brings the image up to date with the background entries of the snapshot, interpolated to alpha, and returns it.
+     * The image is compatible with gc (null for a plain RGB image), so that Java2D can keep a copy of it in video
+     * memory.
+     */
+    public BufferedImage update(GraphicsConfiguration gc, RenderSnapshot snapshot, double alpha) {
+        if (image == null) {
+            if (gc == null) {
+                image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+                pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+                pixelSink.setTarget(pixels, width, 0, height);
+            } else {
+                image = gc.createCompatibleImage(width, height, Transparency.OPAQUE);
+            }
+            invalid = true;
+        }
+        if (invalid || !matches(snapshot, alpha)) rebuild(snapshot, alpha);
+        return image;
+    }
+
+    //number of times the image was redrawn
+    public long getRebuilds() {
+        return rebuilds;
+    }
+
+    //true if the background entries of the snapshot are exactly the ones in the image, in the same order
+    private boolean matches(RenderSnapshot snapshot, double alpha) {
+        int index = 0;
+        for (int entry = 0, size = snapshot.getNumEntries(); entry < size; entry++) {
+            if (!snapshot.isBackground(entry)) continue;
+            if (index == numDrawn) return false;
+            snapshot.getBounds(entry, alpha, bounds);
+            long appearance = snapshot.getAppearance(entry);
+            if (drawn[index] != snapshot.getHandle(entry) || drawn[index + 1] != position(bounds)
+                    || drawn[index + 2] != appearance || appearance == Movable.CHANGING) return false;
+            index += 3;
+        }
+        return index == numDrawn;
+    }
+
+    private void rebuild(RenderSnapshot snapshot, double alpha) {
+        Graphics2D g2d = image.createGraphics();
+        try {
+            RenderSink target = sink;
+            if (pixels != null) {
+                Arrays.fill(pixels, 0);
+                target = pixelSink;
+            } else {
+                g2d.setColor(Color.BLACK);
+                g2d.fillRect(0, 0, width, height);
+            }
+            sink.setGraphics(g2d);
+            numDrawn = 0;
+            for (int entry = 0, size = snapshot.getNumEntries(); entry < size; entry++) {
+                if (!snapshot.isBackground(entry)) continue;
+                snapshot.draw(entry, target, alpha);
+                if (numDrawn == drawn.length) drawn = Arrays.copyOf(drawn, drawn.length * 2);
+                snapshot.getBounds(entry, alpha, bounds);
+                drawn[numDrawn++] = snapshot.getHandle(entry);
+                drawn[numDrawn++] = position(bounds);
+                drawn[numDrawn++] = snapshot.getAppearance(entry);
+            }
+        } finally {
+            sink.setGraphics(null);
+            g2d.dispose();
+        }
+        invalid = false;
+        rebuilds++;
+    }
+
+    private static long position(Rectangle bounds) {
+        return (long) bounds.x << 32 | bounds.y & 0xFFFFFFFFL;
+    }
+}
@@ -0,0 +1,137 @@
+package game.mvc.view;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Draws the background and the Movables of a RenderSnapshot into a plain int[] frame buffer on several cores at once,
+ * for the BANDED render mode of the GamePanel. The frame is cut into horizontal bands of equal height, and every band
+ * is drawn by its own task on a ForkJoinPool: it copies its rows of the background straight into the frame's
+ * DataBufferInt, then replays every entry whose bounds overlap the band through its own Graphics2D, clipped to the
+ * band (skipping the rasters of a tall entry, like the alien formation, that lie entirely above or below it).
+ * render() returns once every band is done; the HUD is drawn on top of the finished frame by the caller.
+ *
+ * Bands never write outside their rows, so they need no locking. Each draws through its own PixelRenderSink, which
+ * plots stars, bullets and rectangles straight into the band's pixels, and its own GraphicsRenderSink and RasterCache
+ * for the rest, as none of them are thread-safe; the few sprite images that span bands are simply cached once per band.
+ * Entries are drawn in snapshot order within every band, so overlapping sprites stack as they do on a single thread.
+ */
+public class BandedRenderer {
+
+    private final int width;
+    private final int height;
+    private final BufferedImage frame;
+    //grabbing the pixels keeps the frame out of video memory, which a software renderer has no use for anyway
+    private final int[] pixels;
+    private final ForkJoinPool pool;
+    private final Band[] bands;
+    private final DrawBands drawBands = new DrawBands();
+
+    //what the bands draw in the current render()
+    private RenderSnapshot snapshot;
+    private double alpha;
+    private int[] background;
+
+    public BandedRenderer(int width, int height, int numBands) {
+        this.width = width;
+        this.height = height;
+        frame = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        pixels = ((DataBufferInt) frame.getRaster().getDataBuffer()).getData();
+
+        numBands = Math.max(1, Math.min(numBands, height));
+        AtomicInteger threadCount = new AtomicInteger();
+        pool = new ForkJoinPool(numBands, p -> {
+            ForkJoinWorkerThread thread = ForkJoinPool.defaultForkJoinWorkerThreadFactory.newThread(p);
+            thread.setName("render-band-" + threadCount.incrementAndGet());
+            return thread;
+        }, null, false);
+        bands = new Band[numBands];
+        for (int i = 0; i < numBands; i++) {
+            bands[i] = new Band(height * i / numBands, height * (i + 1) / numBands);
+        }
+    }
+
+    public int getNumBands() {
+        return bands.length;
+    }
+
+    //the frame buffer, as drawn by the last render()
+    public BufferedImage getFrame() {
+        return frame;
+    }
+
+    /**
+     * Draws a frame: the background (an opaque TYPE_INT_RGB image the size of the frame, or null for black) and, unless
+     * snapshot is null, every entry of the snapshot that is not part of the background, interpolated to alpha. Blocks
+     * until every band is drawn.
+     */
+    public BufferedImage render(RenderSnapshot snapshot, double alpha, BufferedImage background) {
+        this.snapshot = snapshot;
+        this.alpha = alpha;
+        this.background = background == null ? null
+                : ((DataBufferInt) background.getRaster().getDataBuffer()).getData();
+        drawBands.reinitialize();
+        pool.invoke(drawBands);
+        this.snapshot = null;
+        this.background = null;
+        return frame;
+    }
+
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    //forks every band but the first, draws that one itself, and joins the rest
+    @SuppressWarnings("serial")
+    private final class DrawBands extends RecursiveAction {
+        @Override
+        protected void compute() {
+            for (Band band : bands) {
+                band.reinitialize();
+            }
+            invokeAll(bands);
+        }
+    }
+
+    @SuppressWarnings("serial")
+    private final class Band extends RecursiveAction {
+        private final int top;
+        private final int bottom;
+        private final Graphics2D g2d;
+        private final PixelRenderSink sink = new PixelRenderSink(new GraphicsRenderSink());
+        private final Rectangle bounds = new Rectangle();
+
+        Band(int top, int bottom) {
+            this.top = top;
+            this.bottom = bottom;
+            g2d = frame.createGraphics();
+            g2d.setClip(0, top, width, bottom - top);
+            sink.getFallback().setGraphics(g2d);
+            sink.setTarget(pixels, width, top, bottom);
+        }
+
+        @Override
+        protected void compute() {
+            if (background != null) {
+                System.arraycopy(background, top * width, pixels, top * width, (bottom - top) * width);
+            } else {
+                Arrays.fill(pixels, top * width, bottom * width, 0);
+            }
+            if (snapshot == null) return;
+
+            for (int entry = 0, size = snapshot.getNumEntries(); entry < size; entry++) {
+                //already drawn with the background
+                if (snapshot.isBackground(entry)) continue;
+                snapshot.getBounds(entry, alpha, bounds);
+                if (bounds.y >= bottom || bounds.y + bounds.height <= top) continue;
+                snapshot.draw(entry, sink, alpha, top, bottom);
+            }
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package game.mvc.view;
+
+import game.mvc.controller.EntityRegistry;
+import game.mvc.model.Movable;
+
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Works out which parts of the screen have to be redrawn in a frame, for the DIRTY render mode of the GamePanel.
+ *
+ * Every frame, each Movable reports its draw bounds and appearance, as captured in the RenderSnapshot (see
+ * Movable.getDrawBounds() and getAppearance()).
+ * The tracker remembers both per handle slot, so it can compare them with the previous frame: a Movable that moved
+ * or changed damages its old and its new rectangle, and one that left the game damages its old one. The HUD adds
+ * its own rectangles. Damage is kept on a grid of TILE x TILE pixel tiles, one long of tile bits per row of tiles,
+ * and handed to the renderer as a few rectangles: runs of damaged tiles within a row, merged with identical runs in
+ * the rows below.
+ *
+ * When more than FULL_FRAME_FRACTION of the tiles are damaged, or the renderer asks for it (the back buffer was lost,
+ * the screen was exposed, the game was paused), the whole frame is drawn instead.
+ */
+class DamageTracker {
+
+    static final int TILE = 16;
+    //beyond this share of damaged tiles, drawing the whole frame in one go is cheaper than clipping to many rectangles
+    static final double FULL_FRAME_FRACTION = 0.5;
+
+    private final int cols;
+    private final int rows;
+    private final long[] tiles;
+    private final AtomicBoolean fullFrameRequested = new AtomicBoolean(true);
+    private boolean fullFrame;
+
+    //slot -> handle, bounds and appearance in the last frame in which the Movable was drawn, and the number of that frame
+    private int[] handles = new int[256];
+    private int[] xs = new int[256];
+    private int[] ys = new int[256];
+    private int[] widths = new int[256];
+    private int[] heights = new int[256];
+    private long[] appearances = new long[256];
+    private int[] seen = new int[256];
+    private int frame;
+
+    private final List<Rectangle> rectangles = new ArrayList<>();
+    private int numRectangles;
+
+    DamageTracker(int width, int height) {
+        cols = (width + TILE - 1) / TILE;
+        rows = (height + TILE - 1) / TILE;
+        if (cols > 64) throw new IllegalArgumentException("At most " + 64 * TILE + " pixels wide");
+        tiles = new long[rows];
+    }
+
+    //the next frame is drawn in full; may be called from any thread
+    void requestFullFrame() {
+        fullFrameRequested.set(true);
+    }
+
+    void beginFrame() {
+        frame++;
+        Arrays.fill(tiles, 0);
+        //taken and cleared in one step, so that a request from another thread in between is not lost
+        fullFrame = fullFrameRequested.getAndSet(false);
+    }
+
+    //records where the Movable with the handle is drawn in this frame, and damages whatever changed since the last frame
+    void track(int handle, Rectangle bounds, long appearance) {
+        if (handle == EntityRegistry.NO_HANDLE) {
+            damage(bounds.x, bounds.y, bounds.width, bounds.height);
+            return;
+        }
+        int slot = EntityRegistry.slot(handle);
+        if (slot >= handles.length) grow(slot + 1);
+
+        if (handles[slot] == handle) {
+            boolean moved = xs[slot] != bounds.x || ys[slot] != bounds.y || widths[slot] != bounds.width
+                    || heights[slot] != bounds.height;
+            if (moved) damage(xs[slot], ys[slot], widths[slot], heights[slot]);
+            if (moved || appearance == Movable.CHANGING || appearance != appearances[slot]) {
+                damage(bounds.x, bounds.y, bounds.width, bounds.height);
+            }
+        } else {
+            //a new Movable, or a new one in the slot of one that left
+            if (handles[slot] != EntityRegistry.NO_HANDLE) damage(xs[slot], ys[slot], widths[slot], heights[slot]);
+            damage(bounds.x, bounds.y, bounds.width, bounds.height);
+        }
+        handles[slot] = handle;
+        xs[slot] = bounds.x;
+        ys[slot] = bounds.y;
+        widths[slot] = bounds.width;
+        heights[slot] = bounds.height;
+        appearances[slot] = appearance;
+        seen[slot] = frame;
+    }
+
+    //damages the last rectangles of the Movables that were not tracked in this frame, because they left the game
+    void endFrame() {
+        for (int slot = 0; slot < handles.length; slot++) {
+            if (handles[slot] != EntityRegistry.NO_HANDLE && seen[slot] != frame) {
+                damage(xs[slot], ys[slot], widths[slot], heights[slot]);
+                handles[slot] = EntityRegistry.NO_HANDLE;
+            }
+        }
+    }
+
+    void damage(int x, int y, int width, int height) {
+        if (width <= 0 || height <= 0) return;
+        int col0 = Math.max(0, Math.floorDiv(x, TILE));
+        int col1 = Math.min(cols - 1, Math.floorDiv(x + width - 1, TILE));
+        int row0 = Math.max(0, Math.floorDiv(y, TILE));
+        int row1 = Math.min(rows - 1, Math.floorDiv(y + height - 1, TILE));
+        if (col0 > col1 || row0 > row1) return;
+        int span = col1 - col0 + 1;
+        long mask = (span == 64 ? -1L : (1L << span) - 1) << col0;
+        for (int row = row0; row <= row1; row++) {
+            tiles[row] |= mask;
+        }
+    }
+
+    boolean isFullFrame() {
+        if (fullFrame) return true;
+        int damaged = 0;
+        for (long row : tiles) damaged += Long.bitCount(row);
+        return damaged > FULL_FRAME_FRACTION * cols * rows;
+    }
+
+    //share of the tiles damaged in this frame, from 0 to 1
+    double getDamagedFraction() {
+        if (fullFrame) return 1;
+        int damaged = 0;
+        for (long row : tiles) damaged += Long.bitCount(row);
+        return (double) damaged / (cols * rows);
+    }
+
+    /**
+     * Turns the damaged area of this frame into rectangles in pixels, and returns how many there are; see
+     * getRectangle(). The rectangles are reused by the next frame. Call after endFrame().
+     */
+    int computeRectangles() {
+        numRectangles = 0;
+        //rectangles before this index ended above the previous row of tiles, and can not grow any more
+        int open = 0;
+        for (int row = 0; row < rows; row++) {
+            int opened = numRectangles;
+            long bits = tiles[row];
+            while (bits != 0) {
+                int start = Long.numberOfTrailingZeros(bits);
+                int end = start + Long.numberOfTrailingZeros(~(bits >>> start));
+                bits &= end == 64 ? 0 : -1L << end;
+
+                //grow a rectangle of the previous row with exactly the same columns, or start a new one
+                Rectangle grown = null;
+                for (int i = open; i < opened && grown == null; i++) {
+                    Rectangle r = rectangles.get(i);
+                    if (r.y + r.height == row * TILE && r.x == start * TILE && r.width == (end - start) * TILE) {
+                        grown = r;
+                    }
+                }
+                if (grown != null) {
+                    grown.height += TILE;
+                } else {
+                    if (numRectangles == rectangles.size()) rectangles.add(new Rectangle());
+                    rectangles.get(numRectangles++).setBounds(start * TILE, row * TILE, (end - start) * TILE, TILE);
+                }
+            }
+            while (open < numRectangles && !reachesRow(rectangles.get(open), row)) open++;
+        }
+        return numRectangles;
+    }
+
+    Rectangle getRectangle(int index) {
+        return rectangles.get(index);
+    }
+
+    private static boolean reachesRow(Rectangle r, int row) {
+        return r.y + r.height == (row + 1) * TILE;
+    }
+
+    private void grow(int minSlots) {
+        int capacity = Math.max(minSlots, handles.length * 2);
+        handles = Arrays.copyOf(handles, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        appearances = Arrays.copyOf(appearances, capacity);
+        seen = Arrays.copyOf(seen, capacity);
+    }
+}
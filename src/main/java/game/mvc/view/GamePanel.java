@@ -2,36 +2,86 @@ package game.mvc.view;
 
 import game.mvc.controller.CommandCenter;
 import game.mvc.controller.Game;
-import game.mvc.controller.Utils;
+import game.mvc.controller.ImageLoader;
+import game.mvc.controller.metrics.FrameMetrics;
+import game.mvc.controller.metrics.RollingHistogram;
 import game.mvc.model.*;
-import game.mvc.model.prime.PolarPoint;
+import game.mvc.model.prime.Outline;
 
 import java.awt.*;
+import java.awt.image.BufferStrategy;
+import java.awt.image.BufferedImage;
+import java.awt.image.VolatileImage;
 import java.text.DecimalFormat;
 import java.util.*;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicInteger;
-import java.util.function.Function;
 
 
-public class GamePanel extends Panel {
+//GamePanel is a Canvas so that it can own a BufferStrategy. See renderFrame() below.
+public class GamePanel extends Canvas {
+
+    //ACTIVE renders through a page-flipping BufferStrategy. PASSIVE is the original path: draw into an off-screen
+    //image and copy it onto the panel with getGraphics(). DIRTY keeps the off-screen image from frame to frame, and
+    //only redraws and copies the parts of it that changed (see DamageTracker), for machines where fill-rate is the
+    //bottleneck. BANDED draws the frame in software on several cores at once (see BandedRenderer), for machines where
+    //the one thread that renders is the bottleneck. Set the RENDERER environment variable to choose.
+    public enum RenderMode {ACTIVE, PASSIVE, DIRTY, BANDED}
 
     // ==============================================================
     // FIELDS
     // ==============================================================
     private final Font fontNormal = new Font("SansSerif", Font.BOLD, 12);
     private final Font fontBig = new Font("SansSerif", Font.BOLD + Font.ITALIC, 36);
+    //the metrics overlay is a table, so it needs a fixed-width font
+    private final Font fontOverlay = new Font("Monospaced", Font.PLAIN, 12);
     private final DecimalFormat decimalFormat = new DecimalFormat("#,###");
     private FontMetrics fontMetrics;
     private int fontWidth;
     private int fontHeight;
 
+    //Movables draw themselves through this sink, see RenderSink
+    private final GraphicsRenderSink renderSink = new GraphicsRenderSink();
+
     //used to draw number of ships remaining
-    private final Point[] pntShipsRemaining;
+    private static final int SHIP_RADIUS = 15;
+    //built in the constructor, before the simulation thread starts: Outline.of() is not thread-safe, and the
+    //simulation calls it while it captures snapshots
+    private final Outline shipsRemaining;
+
+    private RenderMode renderMode;
+    //used for ACTIVE rendering; created lazily once the panel is displayable
+    private BufferStrategy bufferStrategy;
+
+    //used for double-buffering in PASSIVE mode. The accelerated image is reused from frame to frame and only
+    //re-created when it no longer matches the screen's graphics configuration.
+    private VolatileImage imgOff;
+
+    //toggled with the T key; see drawMetricsOverlay()
+    private volatile boolean metricsOverlay;
 
-    //used for double-buffering
-    private Image imgOff;
-    private Graphics grpOff;
+    //the stars and bunkers, see drawFrame()
+    private final BackgroundLayer backgroundLayer = new BackgroundLayer(Game.DIM.width, Game.DIM.height);
+    private CommandCenter.Universe backgroundUniverse;
+
+    //used for DIRTY rendering, see renderDirty()
+    private final DamageTracker damageTracker = new DamageTracker(Game.DIM.width, Game.DIM.height);
+    private final Rectangle bounds = new Rectangle();
+    private final Rectangle screen = new Rectangle(0, 0, Game.DIM.width, Game.DIM.height);
+    //the clip of the rectangle being redrawn, or null while the whole frame is drawn
+    private Rectangle redrawing;
+    private boolean wasPlaying;
+    private boolean atlasReady;
+    private boolean statusShown;
+    private volatile double damagedFraction;
+
+    //used for BANDED rendering; created lazily, with as many bands as the RENDER_BANDS environment variable says (by
+    //default one per core)
+    private BandedRenderer bandedRenderer;
+
+    //what renderFrame() is drawing; owned by the render thread until it returns
+    private RenderSnapshot snapshot;
+    private double alpha;
 
 
 
@@ -58,7 +108,8 @@ public class GamePanel extends Panel {
         listShip.add(new Point(8, 2));
         listShip.add(new Point(-8, 2));    // Bottom
 
-        pntShipsRemaining = listShip.toArray(new Point[0]);
+        //rotated by 90 degrees and scaled once
+        shipsRemaining = Outline.of(listShip.toArray(new Point[0]), 90, SHIP_RADIUS, false);
 
         gameFrame.pack();
         initFontInfo();
@@ -68,6 +119,20 @@ public class GamePanel extends Panel {
         gameFrame.setResizable(false);
         gameFrame.setVisible(true);
         setFocusable(true);
+
+        renderMode = renderModeFromEnv();
+        //in ACTIVE mode we paint on our own schedule, so ignore repaint requests from the OS
+        setIgnoreRepaint(renderMode == RenderMode.ACTIVE);
+    }
+
+    private static RenderMode renderModeFromEnv() {
+        String strMode = System.getenv("RENDERER");
+        if (strMode == null) return RenderMode.ACTIVE;
+        try {
+            return RenderMode.valueOf(strMode.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return RenderMode.ACTIVE;
+        }
     }
 
 
@@ -83,18 +148,18 @@ public class GamePanel extends Panel {
 
 
         //draw the level upper-right corner
-        String levelText = "Level : [" + CommandCenter.getInstance().getLevel() + "]  " +
-        CommandCenter.getInstance().getUniverse().toString().replace('_', ' ');
+        String levelText = "Level : [" + snapshot.getLevel() + "]  " +
+        snapshot.getUniverse().toString().replace('_', ' ');
         graphics.drawString(levelText, Game.DIM.width - OFFSET_LEFT, fontHeight); //upper-right corner
-        graphics.drawString("Score : " + decimalFormat.format(CommandCenter.getInstance().getScore()),
+        graphics.drawString("Score : " + decimalFormat.format(snapshot.getScore()),
                 Game.DIM.width - OFFSET_LEFT,
                 fontHeight * 2);
 
         //build the status string array with possible messages in middle of screen
         List<String> statusArray = new ArrayList<>();
-        if (CommandCenter.getInstance().getLaserCannon().getShowLevel() > 0) statusArray.add(levelText);
-        if (CommandCenter.getInstance().getLaserCannon().isMaxSpeedAttained()) statusArray.add("WARNING - SLOW DOWN");
-        if (CommandCenter.getInstance().getLaserCannon().getNukeMeter() > 0) statusArray.add("PRESS F for NUKE");
+        if (snapshot.isShowLevel()) statusArray.add(levelText);
+        if (snapshot.isMaxSpeedAttained()) statusArray.add("WARNING - SLOW DOWN");
+        if (snapshot.isNukeReady()) statusArray.add("PRESS F for NUKE");
 
             //draw the statusArray strings to middle of screen
         if (!statusArray.isEmpty())
@@ -108,7 +173,7 @@ public class GamePanel extends Panel {
     private void drawNumFrame(Graphics g) {
         g.setColor(Color.white);
         g.setFont(fontNormal);
-        g.drawString("FRAME[JAVA]:" + CommandCenter.getInstance().getFrame(), fontWidth,
+        g.drawString("FRAME[JAVA]:" + snapshot.getFrame(), fontWidth,
                 Game.DIM.height  - (fontHeight + 22));
 
     }
@@ -133,22 +198,284 @@ public class GamePanel extends Panel {
         g.drawRect(xVal, yVal, 100, 10);
     }
 
+    //frames per second the screen can actually show; rendering faster than this is wasted work
+    public int getDisplayRefreshRate() {
+        final int DEFAULT_REFRESH_RATE = 60;
+        try {
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            GraphicsDevice device = gc != null ? gc.getDevice() :
+                    GraphicsEnvironment.getLocalGraphicsEnvironment().getDefaultScreenDevice();
+            int refreshRate = device.getDisplayMode().getRefreshRate();
+            return refreshRate == DisplayMode.REFRESH_RATE_UNKNOWN ? DEFAULT_REFRESH_RATE : refreshRate;
+        } catch (HeadlessException e) {
+            return DEFAULT_REFRESH_RATE;
+        }
+    }
+
+    /**
+     * Draws the snapshot, with every Movable interpolated to alpha (0 is where it was at the start of the snapshot's
+     * tick, 1 where it is at the end); see RenderSnapshot. Called by the render thread once per frame, and by nothing
+     * else: the snapshot must not change until this returns.
+     */
+    public void renderFrame(RenderSnapshot snapshot, double alpha) {
+        this.snapshot = snapshot;
+        this.alpha = alpha;
+        if (renderMode == RenderMode.DIRTY) {
+            renderDirty();
+            return;
+        }
+        if (renderMode == RenderMode.BANDED) {
+            renderBanded();
+            return;
+        }
+        if (renderMode == RenderMode.ACTIVE) {
+            if (renderActive()) return;
+            //no BufferStrategy could be created for this panel, so stay on the passive path from now on
+            System.err.println("Active rendering unavailable, falling back to passive rendering");
+            renderMode = RenderMode.PASSIVE;
+            setIgnoreRepaint(false);
+        }
+        Graphics g = getGraphics();
+        try {
+            renderPassive(g);
+        } finally {
+            if (g != null) g.dispose();
+        }
+    }
+
+    //draws one frame into the BufferStrategy's back buffer and flips it to the screen. Returns false if this panel
+    //can not have a BufferStrategy.
+    private boolean renderActive() {
+        if (bufferStrategy == null) {
+            try {
+                //asks for page flipping first, and quietly falls back to blitting where flipping is not supported
+                createBufferStrategy(2);
+            } catch (IllegalStateException | IllegalArgumentException e) {
+                return false;
+            }
+            bufferStrategy = getBufferStrategy();
+            if (bufferStrategy == null) return false;
+            System.out.println("Active rendering; page flipping=" +
+                    bufferStrategy.getCapabilities().isPageFlipping());
+        }
+
+        //the back buffer is accelerated video memory and its contents may be lost at any time (e.g. display mode
+        //change, or another full-screen application), in which case the frame is simply drawn again
+        do {
+            do {
+                Graphics g = bufferStrategy.getDrawGraphics();
+                try {
+                    drawFrame(g);
+                } finally {
+                    g.dispose();
+                }
+            } while (bufferStrategy.contentsRestored());
+            bufferStrategy.show();
+        } while (bufferStrategy.contentsLost());
+
+        Toolkit.getDefaultToolkit().sync();
+        return true;
+    }
+
+    //redraws the damaged rectangles of the persistent off-screen image, and copies just those to the screen
+    private void renderDirty() {
+        Graphics g = getGraphics();
+        //the panel is not displayable yet (or no longer)
+        if (g == null) return;
+        try {
+            do {
+                GraphicsConfiguration gc = getGraphicsConfiguration();
+                int valid = imgOff == null ? VolatileImage.IMAGE_INCOMPATIBLE : imgOff.validate(gc);
+                if (valid == VolatileImage.IMAGE_INCOMPATIBLE) {
+                    if (imgOff != null) imgOff.flush();
+                    imgOff = createVolatileImage(Game.DIM.width, Game.DIM.height);
+                }
+                //a new or restored image holds nothing worth keeping
+                if (valid != VolatileImage.IMAGE_OK) damageTracker.requestFullFrame();
+
+                int numRectangles = trackDamage();
+                Graphics2D grpOff = imgOff.createGraphics();
+                try {
+                    if (numRectangles < 0) {
+                        drawFrame(grpOff);
+                    } else {
+                        for (int i = 0; i < numRectangles; i++) {
+                            redrawing = damageTracker.getRectangle(i).intersection(screen);
+                            grpOff.setClip(redrawing);
+                            drawFrame(grpOff);
+                        }
+                        redrawing = null;
+                    }
+                } finally {
+                    grpOff.dispose();
+                }
+
+                if (numRectangles < 0) {
+                    g.drawImage(imgOff, 0, 0, this);
+                } else {
+                    for (int i = 0; i < numRectangles; i++) {
+                        Rectangle r = damageTracker.getRectangle(i);
+                        int x2 = Math.min(r.x + r.width, Game.DIM.width);
+                        int y2 = Math.min(r.y + r.height, Game.DIM.height);
+                        g.drawImage(imgOff, r.x, r.y, x2, y2, r.x, r.y, x2, y2, this);
+                    }
+                }
+                //anything lost along the way is drawn again, in full
+                if (imgOff.contentsLost()) damageTracker.requestFullFrame();
+            } while (imgOff.contentsLost());
+            Toolkit.getDefaultToolkit().sync();
+        } finally {
+            g.dispose();
+        }
+    }
+
+    //draws the background and the movables band by band on the BandedRenderer's pool, then the HUD on top of them, and
+    //copies the frame to the screen
+    private void renderBanded() {
+        Graphics g = getGraphics();
+        //the panel is not displayable yet (or no longer)
+        if (g == null) return;
+        try {
+            if (bandedRenderer == null) {
+                bandedRenderer = new BandedRenderer(Game.DIM.width, Game.DIM.height, renderBandsFromEnv());
+                System.out.println("Banded rendering; bands=" + bandedRenderer.getNumBands());
+            }
+            boolean playing = !snapshot.isGameOver() && !snapshot.isPaused();
+            //the background layer is drawn for no graphics configuration, so that it is a plain int[] image as well
+            BufferedImage frame = playing ? bandedRenderer.render(snapshot, alpha, updateBackground(null))
+                    : bandedRenderer.render(null, alpha, null);
+            Graphics2D grpOff = frame.createGraphics();
+            try {
+                drawNumFrame(grpOff);
+                drawHud(grpOff);
+            } finally {
+                grpOff.dispose();
+            }
+            g.drawImage(frame, 0, 0, this);
+            Toolkit.getDefaultToolkit().sync();
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static int renderBandsFromEnv() {
+        String strBands = System.getenv("RENDER_BANDS");
+        int cores = Runtime.getRuntime().availableProcessors();
+        try {
+            int bands = strBands == null ? cores : Integer.parseInt(strBands.trim());
+            return bands > 0 ? bands : cores;
+        } catch (NumberFormatException e) {
+            return cores;
+        }
+    }
+
+    //tells the DamageTracker where everything is drawn in this frame. Returns the number of damaged rectangles, or -1
+    //if the whole frame is to be drawn.
+    private int trackDamage() {
+        boolean playing = !snapshot.isGameOver() && !snapshot.isPaused();
+        //the game-over and pause screens are drawn in full, as is the first frame after them
+        if (!playing || !wasPlaying) damageTracker.requestFullFrame();
+        //so is the frame in which the sprite images have finished loading, see AssetLoader
+        if (!atlasReady && ImageLoader.isAtlasReady()) {
+            atlasReady = true;
+            damageTracker.requestFullFrame();
+        }
+        wasPlaying = playing;
+
+        damageTracker.beginFrame();
+        for (int entry = 0; entry < snapshot.getNumEntries(); entry++) {
+            snapshot.getBounds(entry, alpha, bounds);
+            damageTracker.track(snapshot.getHandle(entry), bounds, snapshot.getAppearance(entry));
+        }
+        damageTracker.endFrame();
+
+        //the HUD: the frame counter changes every frame, the rest is cheap enough to redraw every frame as well
+        damageTracker.damage(0, Game.DIM.height - (fontHeight * 2 + 22), Game.DIM.width / 3, fontHeight * 2);
+        damageTracker.damage(Game.DIM.width - 230, 0, 230, fontHeight * 2 + fontMetrics.getDescent());
+        damageTracker.damage(Game.DIM.width / 2, Game.DIM.height - 65, Game.DIM.width / 2, 40);
+        boolean showStatus = snapshot.isShowLevel() || snapshot.isMaxSpeedAttained() || snapshot.isNukeReady();
+        if (showStatus || statusShown) {
+            damageTracker.damage(0, Game.DIM.height / 4, Game.DIM.width, fontHeight + 3 * 40);
+        }
+        statusShown = showStatus;
+        if (metricsOverlay) {
+            damageTracker.damage(0, 0, Game.DIM.width / 2, fontHeight * (FrameMetrics.Phase.values().length + 4));
+        }
+
+        damagedFraction = damageTracker.getDamagedFraction();
+        return damageTracker.isFullFrame() ? -1 : damageTracker.computeRectangles();
+    }
+
+    //The OS asks for a repaint (e.g. the window was uncovered). Only the render thread draws, and only from the
+    //snapshot it owns, so this does not paint anything: the next frame, a refresh later, paints everything anyway.
+    //In DIRTY mode, that frame has to be copied in full.
     @Override
     public void update(Graphics g) {
+        if (renderMode == RenderMode.DIRTY) damageTracker.requestFullFrame();
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        update(g);
+    }
+
+    private void renderPassive(Graphics g) {
+        //the panel is not displayable yet (or no longer)
+        if (g == null) return;
 
-        // The following "off" vars are used for the off-screen double-buffered image.
-        imgOff = createImage(Game.DIM.width, Game.DIM.height);
-        //get its graphics context
-        grpOff = imgOff.getGraphics();
+        do {
+            //re-create the off-screen image only when it is missing or incompatible with the screen
+            GraphicsConfiguration gc = getGraphicsConfiguration();
+            if (imgOff == null || imgOff.validate(gc) == VolatileImage.IMAGE_INCOMPATIBLE) {
+                if (imgOff != null) imgOff.flush();
+                imgOff = createVolatileImage(Game.DIM.width, Game.DIM.height);
+            }
+
+            Graphics2D grpOff = imgOff.createGraphics();
+            try {
+                drawFrame(grpOff);
+            } finally {
+                grpOff.dispose();
+            }
+
+            //after drawing all the movables or text on the offscreen-image, copy it in one fell-swoop to graphics
+            // context of the game panel, and show it for ~40ms. If you attempt to draw sprites directly on the
+            // gamePanel, e.g. without the use of a double-buffered off-screen image, you will see flickering.
+            g.drawImage(imgOff, 0, 0, this);
+        } while (imgOff.contentsLost());
+    }
 
-        //fill the entire off-screen image with black background
-        grpOff.setColor(Color.BLACK);
-        grpOff.fillRect(0, 0, Game.DIM.width, Game.DIM.height);
+    //draws everything for the current frame onto the given graphics context, be it a back buffer or an image
+    private void drawFrame(Graphics grpOff) {
+        boolean playing = !snapshot.isGameOver() && !snapshot.isPaused();
+        if (!playing) {
+            //fill the entire off-screen image with black background
+            grpOff.setColor(Color.BLACK);
+            grpOff.fillRect(0, 0, Game.DIM.width, Game.DIM.height);
+        } else {
+            //the black background, the stars and the bunkers in one go
+            grpOff.drawImage(updateBackground(getGraphicsConfiguration()), 0, 0, null);
+        }
 
         //this is used for development, you may remove drawNumFrame() in your final game.
         drawNumFrame(grpOff);
 
-        if (CommandCenter.getInstance().isGameOver()) {
+        if (playing) drawMovables(grpOff);
+
+        drawHud(grpOff);
+    }
+
+    private BufferedImage updateBackground(GraphicsConfiguration gc) {
+        if (snapshot.getUniverse() != backgroundUniverse) {
+            backgroundUniverse = snapshot.getUniverse();
+            backgroundLayer.invalidate();
+        }
+        return backgroundLayer.update(gc, snapshot, alpha);
+    }
+
+    //the texts, the ships remaining and the metrics overlay, on top of everything else
+    private void drawHud(Graphics grpOff) {
+        if (snapshot.isGameOver()) {
             displayTextOnScreen(grpOff,
                     "SPACE INVADERS",
                     "GAME OVER",
@@ -159,7 +486,7 @@ public class GamePanel extends Panel {
                     "'M' to toggle music",
                     "'Q' to Quit"
             );
-        } else if (CommandCenter.getInstance().isPaused()) {
+        } else if (snapshot.isPaused()) {
 
             displayTextOnScreen(grpOff, "Game Paused");
 
@@ -169,13 +496,6 @@ public class GamePanel extends Panel {
         else {
 
 
-            moveDrawMovables(grpOff,
-                    CommandCenter.getInstance().getMovDebris(),
-                    CommandCenter.getInstance().getMovFloaters(),
-                    CommandCenter.getInstance().getMovFoes(),
-                    CommandCenter.getInstance().getMovFriends());
-
-
             drawNumberShipsRemaining(grpOff);
             drawMeters(grpOff);
             drawlaserCannonStatus(grpOff);
@@ -183,22 +503,60 @@ public class GamePanel extends Panel {
 
         }
 
-        //after drawing all the movables or text on the offscreen-image, copy it in one fell-swoop to graphics context
-        // of the game panel, and show it for ~40ms. If you attempt to draw sprites directly on the gamePanel, e.g.
-        // without the use of a double-buffered off-screen image, you will see flickering.
-        g.drawImage(imgOff, 0, 0, this);
+        if (metricsOverlay) drawMetricsOverlay(grpOff);
+    }
+
+    public void toggleMetricsOverlay() {
+        metricsOverlay = !metricsOverlay;
+        damageTracker.requestFullFrame();
+    }
+
+    //p50/p99 of every phase over the last RollingHistogram.WINDOW ticks (frames for RENDER), and the team sizes
+    private void drawMetricsOverlay(Graphics g) {
+        FrameMetrics metrics = FrameMetrics.getInstance();
+        g.setColor(Color.YELLOW);
+        g.setFont(fontOverlay);
+        int y = fontHeight;
+        g.drawString("phase           p50 us     p99 us", fontWidth / 2, y);
+        for (FrameMetrics.Phase phase : FrameMetrics.Phase.values()) {
+            RollingHistogram histogram = metrics.getHistogram(phase);
+            y += fontHeight;
+            g.drawString(String.format("%-12s %9.1f %9.1f", phase, FrameMetrics.micros(histogram.percentile(0.5)),
+                    FrameMetrics.micros(histogram.percentile(0.99))), fontWidth / 2, y);
+        }
+        y += fontHeight;
+        g.drawString("friends " + metrics.getNumFriends() + "  foes " + metrics.getNumFoes() + "  debris "
+                + metrics.getNumDebris() + "  floaters " + metrics.getNumFloaters(), fontWidth / 2, y);
+        RasterCache rasterCache = renderSink.getRasterCache();
+        y += fontHeight;
+        g.drawString(String.format("raster cache %d images %d KB, %d misses %d evictions", rasterCache.getSize(),
+                rasterCache.getBytes() >> 10, rasterCache.getMisses(), rasterCache.getEvictions()), fontWidth / 2, y);
+        if (renderMode == RenderMode.DIRTY) {
+            y += fontHeight;
+            g.drawString(String.format("redrawn %.0f%%", damagedFraction * 100), fontWidth / 2, y);
+        }
+        if (renderMode == RenderMode.BANDED && bandedRenderer != null) {
+            y += fontHeight;
+            g.drawString("bands " + bandedRenderer.getNumBands(), fontWidth / 2, y);
+        }
     }
 
 
-    //this method causes all sprites to move and draw themselves. This method takes a variable number of teams.
-    @SafeVarargs
-    private final void moveDrawMovables(final Graphics g, List<Movable>... teams) {
+    //this method replays the draw calls the sprites made when the snapshot was captured, in the same order (debris,
+    //floaters, foes, friends). Moving is no longer done here; the simulation moves everything on its own fixed tick,
+    //see Simulation.tick().
+    private void drawMovables(final Graphics g) {
 
-        for (List<Movable> team : teams) {
-            for (Movable mov : team) {
-                mov.move();
-                mov.draw(g);
+        renderSink.setGraphics((Graphics2D) g);
+        for (int entry = 0; entry < snapshot.getNumEntries(); entry++) {
+            //already drawn with the background
+            if (snapshot.isBackground(entry)) continue;
+            //while redrawing a damaged rectangle, skip everything outside it
+            if (redrawing != null) {
+                snapshot.getBounds(entry, alpha, bounds);
+                if (!bounds.intersects(redrawing)) continue;
             }
+            snapshot.draw(entry, renderSink, alpha);
         }
 
     }
@@ -208,7 +566,7 @@ public class GamePanel extends Panel {
 
     // Draw the number of laserCannons remaining on the bottom-right of the screen.
     private void drawNumberShipsRemaining(Graphics g) {
-        int numlaserCannons = CommandCenter.getInstance().getNumlaserCannons();
+        int numlaserCannons = snapshot.getNumLaserCannons();
         while (numlaserCannons > 1) {
             drawOneShip(g, numlaserCannons--);
         }
@@ -219,49 +577,12 @@ public class GamePanel extends Panel {
 
         g.setColor(Color.GREEN);
 
-        final int SHIP_RADIUS = 15;
         final int X_POS = Game.DIM.width - (27 * offSet);
         final int Y_POS = Game.DIM.height - 45;
 
-        //the reason we convert to polar-points is that it's much easier to rotate polar-points.
-        List<PolarPoint> polars = Utils.cartesiansToPolars(pntShipsRemaining);
-
-        Function<PolarPoint, PolarPoint> rotatePolarBy90 =
-                pp -> new PolarPoint(
-                        pp.getR(),
-                        pp.getTheta() + Math.toRadians(90.0) //rotated Theta
-                );
-
-        Function<PolarPoint, Point> polarToCartesian =
-                pp -> new Point(
-                        (int)  (pp.getR() * SHIP_RADIUS * Math.sin(pp.getTheta())),
-                        (int)  (pp.getR() * SHIP_RADIUS * Math.cos(pp.getTheta())));
-
-        Function<Point, Point> adjustForLocation =
-                pnt -> new Point(
-                        pnt.x + X_POS,
-                        pnt.y + Y_POS);
-
-
-        g.drawPolygon(
-
-                polars.stream()
-                        .map(rotatePolarBy90)
-                        .map(polarToCartesian)
-                        .map(adjustForLocation)
-                        .map(pnt -> pnt.x)
-                        .mapToInt(Integer::intValue)
-                        .toArray(),
-
-                polars.stream()
-                        .map(rotatePolarBy90)
-                        .map(polarToCartesian)
-                        .map(adjustForLocation)
-                        .map(pnt -> pnt.y)
-                        .mapToInt(Integer::intValue)
-                        .toArray(),
-
-                polars.size());
+        g.translate(X_POS, Y_POS);
+        g.drawPolygon(shipsRemaining.getXs(), shipsRemaining.getYs(), shipsRemaining.size());
+        g.translate(-X_POS, -Y_POS);
 
 
     }
@@ -0,0 +1,121 @@
+package game.mvc.view;
+
+import game.mvc.model.RenderSink;
+import game.mvc.model.prime.AtlasRegion;
+import game.mvc.model.prime.Outline;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+
+//The RenderSink used by the GamePanel: it draws everything the Movables describe onto a Graphics2D context.
+//One instance is reused from frame to frame; GamePanel points it at the current frame's graphics with setGraphics().
+public class GraphicsRenderSink implements RenderSink {
+
+    private Graphics2D g2d;
+    //null to transform every raster on the fly
+    private final RasterCache rasterCache;
+
+    public GraphicsRenderSink() {
+        this(new RasterCache(RasterCache.DEFAULT_MAX_BYTES));
+    }
+
+    public GraphicsRenderSink(RasterCache rasterCache) {
+        this.rasterCache = rasterCache;
+    }
+
+    public RasterCache getRasterCache() {
+        return rasterCache;
+    }
+
+    public void setGraphics(Graphics2D g2d) {
+        this.g2d = g2d;
+    }
+
+    //Pre-scaled and pre-rotated images come from the RasterCache, so that drawing is a plain drawImage(). Without a
+    //cache the region is blitted from the atlas through a transform, as if it were a separate image with (0, 0) at its
+    //top-left corner: the software loops reject off-screen sprites and scale faster that way than through a scaling
+    //drawImage() with a source rectangle.
+    //https://www.tabnine.com/code/java/methods/java.awt.geom.AffineTransform/rotate
+    @Override
+    public void drawRaster(AtlasRegion region, int centerX, int centerY, int width, int height,
+                           int orientation) {
+
+        //still being decoded, see AssetLoader
+        if (!region.isLoaded()) return;
+
+        if (rasterCache != null) {
+            BufferedImage image = rasterCache.get(region, width, height, orientation, g2d.getDeviceConfiguration());
+            g2d.drawImage(image, centerX - image.getWidth() / 2, centerY - image.getHeight() / 2, null);
+            return;
+        }
+
+        BufferedImage atlas = region.getAtlas();
+        int sx = region.getX();
+        int sy = region.getY();
+        double angleRadians = Math.toRadians(orientation);
+
+        AffineTransform oldTransform = g2d.getTransform();
+        try {
+            double scaleX = width * 1.0 / region.getWidth();
+            double scaleY = height * 1.0 / region.getHeight();
+
+            AffineTransform affineTransform = new AffineTransform( oldTransform );
+            if ( centerX != 0 || centerY != 0 ) {
+                affineTransform.translate( centerX, centerY );
+            }
+            affineTransform.scale( scaleX, scaleY );
+            if ( angleRadians != 0 ) {
+                affineTransform.rotate( angleRadians );
+            }
+            affineTransform.translate( -region.getWidth() / 2.0, -region.getHeight() / 2.0 );
+
+            g2d.setTransform( affineTransform );
+
+            g2d.drawImage( atlas, 0, 0, region.getWidth(), region.getHeight(), sx, sy, sx + region.getWidth(),
+                    sy + region.getHeight(), null );
+        } finally {
+            g2d.setTransform( oldTransform );
+
+        }
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, int x, int y) {
+        g2d.drawImage(image, x, y, null);
+    }
+
+    @Override
+    public void drawOutline(Outline outline, int x, int y, Color color) {
+        g2d.setColor(color);
+        g2d.translate(x, y);
+        g2d.drawPolygon(outline.getXs(), outline.getYs(), outline.size());
+        g2d.translate(-x, -y);
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height, Color color) {
+        g2d.setColor(color);
+        g2d.drawOval(x, y, width, height);
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height, Color color) {
+        g2d.setColor(color);
+        g2d.fillRect(x, y, width, height);
+    }
+
+    @Override
+    public void drawString(String text, int x, int y, Color color) {
+        g2d.setColor(color);
+        g2d.drawString(text, x, y);
+    }
+
+    @Override
+    public void drawCenteredString(String text, int centerX, int centerY, Font font, Color color) {
+        g2d.setColor(color);
+        g2d.setFont(font);
+        FontMetrics fm = g2d.getFontMetrics();
+        g2d.drawString(text, centerX - fm.stringWidth(text) / 2, centerY + fm.getAscent() / 2);
+    }
+}
@@ -0,0 +1,162 @@
+package game.mvc.view;
+
+import game.mvc.model.RenderSink;
+import game.mvc.model.prime.AtlasRegion;
+import game.mvc.model.prime.Outline;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+
+/**
+ * A RenderSink that writes the tiny, numerous primitives (the one-pixel ovals of the stars, the outlines of the
+ * bullets, filled rectangles) straight into an int[] of pixels, instead of paying Graphics2D's per-call validation for
+ * each of them. Images, rasters and text, and anything that is not opaque, are passed on to a GraphicsRenderSink that
+ * draws onto the same pixels.
+ *
+ * The pixels come from the DataBufferInt of a TYPE_INT_RGB or TYPE_INT_ARGB image, one int per pixel, width ints per
+ * row; see setTarget(). Only the rows from top (inclusive) to bottom (exclusive) are ever written, so that several
+ * sinks can draw the bands of one frame at the same time (see BandedRenderer). The graphics of the fallback must be
+ * clipped to the same rows.
+ *
+ * Everything is plotted exactly as Java2D's software loops plot it without antialiasing: lines by Bresenham, with
+ * halves rounded away from the start of the line, and ovals of width and height 0 or 1 as the single pixel that
+ * drawOval() makes of them.
+ */
+public class PixelRenderSink implements RenderSink {
+
+    private final GraphicsRenderSink fallback;
+    private int[] pixels;
+    private int width;
+    private int top;
+    private int bottom;
+
+    public PixelRenderSink(GraphicsRenderSink fallback) {
+        this.fallback = fallback;
+    }
+
+    public GraphicsRenderSink getFallback() {
+        return fallback;
+    }
+
+    //the pixels to draw into, width per row, and the rows that may be written
+    public void setTarget(int[] pixels, int width, int top, int bottom) {
+        this.pixels = pixels;
+        this.width = width;
+        this.top = Math.max(0, top);
+        this.bottom = Math.min(bottom, pixels.length / width);
+    }
+
+    @Override
+    public void drawRaster(AtlasRegion region, int centerX, int centerY, int width, int height, int orientation) {
+        fallback.drawRaster(region, centerX, centerY, width, height, orientation);
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, int x, int y) {
+        fallback.drawImage(image, x, y);
+    }
+
+    @Override
+    public void drawOutline(Outline outline, int x, int y, Color color) {
+        if (color.getAlpha() != 255) {
+            fallback.drawOutline(outline, x, y, color);
+            return;
+        }
+        int rgb = color.getRGB();
+        int[] xs = outline.getXs();
+        int[] ys = outline.getYs();
+        int size = outline.size();
+        //a closed polygon, as Graphics.drawPolygon() draws it
+        for (int i = 0; i < size; i++) {
+            int j = i + 1 == size ? 0 : i + 1;
+            drawLine(x + xs[i], y + ys[i], x + xs[j], y + ys[j], rgb);
+        }
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height, Color color) {
+        //larger ovals are rare, and hard to plot exactly like Java2D does
+        if (color.getAlpha() != 255 || width != height || width < 0 || width > 1) {
+            fallback.drawOval(x, y, width, height, color);
+            return;
+        }
+        plot(x + width, y + width, color.getRGB());
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height, Color color) {
+        if (color.getAlpha() != 255) {
+            fallback.fillRect(x, y, width, height, color);
+            return;
+        }
+        int x0 = Math.max(0, x);
+        int x1 = Math.min(this.width, x + width);
+        int y0 = Math.max(top, y);
+        int y1 = Math.min(bottom, y + height);
+        if (x0 >= x1) return;
+        int rgb = color.getRGB();
+        for (int row = y0; row < y1; row++) {
+            Arrays.fill(pixels, row * this.width + x0, row * this.width + x1, rgb);
+        }
+    }
+
+    @Override
+    public void drawString(String text, int x, int y, Color color) {
+        fallback.drawString(text, x, y, color);
+    }
+
+    @Override
+    public void drawCenteredString(String text, int centerX, int centerY, Font font, Color color) {
+        fallback.drawCenteredString(text, centerX, centerY, font, color);
+    }
+
+    //plots the line from (x1, y1) to (x2, y2), both ends included
+    private void drawLine(int x1, int y1, int x2, int y2, int rgb) {
+        //entirely outside the rows or the columns
+        if (Math.max(y1, y2) < top || Math.min(y1, y2) >= bottom) return;
+        if (Math.max(x1, x2) < 0 || Math.min(x1, x2) >= width) return;
+
+        int dx = x2 - x1;
+        int dy = y2 - y1;
+        int ax = Math.abs(dx);
+        int ay = Math.abs(dy);
+        //the major axis steps every pixel. The minor one is at the exact offset rounded half away from the start: it
+        //steps whenever the error, which is that offset plus one half minus the steps so far (times 2 * major), reaches
+        //0. The error is kept one pixel ahead, so that each pixel only needs one comparison.
+        int stepX = dx < 0 ? -1 : 1;
+        int stepY = dy < 0 ? -1 : 1;
+        boolean xMajor = ax >= ay;
+        int errMajor = 2 * (xMajor ? ay : ax);
+        int errMinor = 2 * (xMajor ? ax : ay);
+        int error = errMajor - errMinor / 2;
+        errMinor -= errMajor;
+        int steps = (xMajor ? ax : ay) + 1;
+
+        int x = x1;
+        int y = y1;
+        while (true) {
+            plot(x, y, rgb);
+            if (--steps == 0) return;
+            if (error < 0) {
+                error += errMajor;
+            } else {
+                error -= errMinor;
+                if (xMajor) {
+                    y += stepY;
+                } else {
+                    x += stepX;
+                }
+            }
+            if (xMajor) {
+                x += stepX;
+            } else {
+                y += stepY;
+            }
+        }
+    }
+
+    private void plot(int x, int y, int rgb) {
+        if (x >= 0 && x < width && y >= top && y < bottom) pixels[y * width + x] = rgb;
+    }
+}
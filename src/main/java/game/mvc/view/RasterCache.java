@@ -0,0 +1,157 @@
+package game.mvc.view;
+
+import game.mvc.model.prime.AtlasRegion;
+
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Atlas regions pre-rendered at the size and orientation they are drawn at, so that GraphicsRenderSink.drawRaster()
+ * is a plain, untransformed drawImage() at integer coordinates. Every sprite type has a fixed radius, and most never
+ * rotate, so a handful of images cover nearly every draw. Orientations are quantised to ANGLE_STEP degrees, which is
+ * finer than a spinning sprite moves between two frames.
+ *
+ * Images are evicted least recently used first once they hold more than maxBytes. The cache is only used by the
+ * thread that renders.
+ */
+public class RasterCache {
+
+    public static final int DEFAULT_MAX_BYTES = 16 << 20;
+    static final int ANGLE_STEP = 5;
+
+    private final long maxBytes;
+    private long bytes;
+    private long hits;
+    private long misses;
+    private long evictions;
+
+    //the lookup key is reused, so a hit allocates nothing
+    private final Key probe = new Key();
+    //in access order, least recently used first
+    private final LinkedHashMap<Key, BufferedImage> images = new LinkedHashMap<>(64, 0.75f, true);
+
+    public RasterCache(long maxBytes) {
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * The region scaled to width x height and rotated by orientation (degrees, rounded to ANGLE_STEP) about its center,
+     * in an image compatible with gc (null for a plain ARGB_PRE image). A rotated image is larger than width x height;
+     * its center is the center of the sprite.
+     */
+    public BufferedImage get(AtlasRegion region, int width, int height, int orientation, GraphicsConfiguration gc) {
+        int angle = Math.floorMod(Math.round(orientation / (float) ANGLE_STEP) * ANGLE_STEP, 360);
+        probe.set(region, width, height, angle);
+        BufferedImage image = images.get(probe);
+        if (image != null) {
+            hits++;
+            return image;
+        }
+        misses++;
+        image = render(region, width, height, angle, gc);
+        Key key = new Key();
+        key.set(region, width, height, angle);
+        bytes += bytesOf(image);
+        images.put(key, image);
+        evict();
+        return image;
+    }
+
+    public void clear() {
+        images.clear();
+        bytes = 0;
+    }
+
+    public long getBytes() {
+        return bytes;
+    }
+
+    public int getSize() {
+        return images.size();
+    }
+
+    public long getHits() {
+        return hits;
+    }
+
+    public long getMisses() {
+        return misses;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    //drops the least recently used images until the rest fit; never the one just added, however large it is
+    private void evict() {
+        Iterator<BufferedImage> eldest = images.values().iterator();
+        while (bytes > maxBytes && images.size() > 1) {
+            bytes -= bytesOf(eldest.next());
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    private static BufferedImage render(AtlasRegion region, int width, int height, int angle,
+                                       GraphicsConfiguration gc) {
+        double radians = Math.toRadians(angle);
+        double sin = Math.abs(Math.sin(radians));
+        double cos = Math.abs(Math.cos(radians));
+        int imageWidth = Math.max(1, (int) Math.ceil(width * cos + height * sin));
+        int imageHeight = Math.max(1, (int) Math.ceil(width * sin + height * cos));
+
+        BufferedImage image = gc == null
+                ? new BufferedImage(imageWidth, imageHeight, BufferedImage.TYPE_INT_ARGB_PRE)
+                : gc.createCompatibleImage(imageWidth, imageHeight, Transparency.TRANSLUCENT);
+        Graphics2D g2d = image.createGraphics();
+        try {
+            //default hints, as on the uncached path: a cached sprite must look like the same sprite drawn directly
+            AffineTransform transform = new AffineTransform();
+            transform.translate(imageWidth / 2.0, imageHeight / 2.0);
+            transform.rotate(radians);
+            transform.scale(width * 1.0 / region.getWidth(), height * 1.0 / region.getHeight());
+            transform.translate(-region.getWidth() / 2.0, -region.getHeight() / 2.0);
+            g2d.setTransform(transform);
+            int sx = region.getX();
+            int sy = region.getY();
+            g2d.drawImage(region.getAtlas(), 0, 0, region.getWidth(), region.getHeight(), sx, sy,
+                    sx + region.getWidth(), sy + region.getHeight(), null);
+        } finally {
+            g2d.dispose();
+        }
+        return image;
+    }
+
+    private static long bytesOf(BufferedImage image) {
+        return (long) image.getWidth() * image.getHeight() * 4;
+    }
+
+    private static final class Key {
+        private AtlasRegion region;
+        private int width;
+        private int height;
+        private int angle;
+
+        void set(AtlasRegion region, int width, int height, int angle) {
+            this.region = region;
+            this.width = width;
+            this.height = height;
+            this.angle = angle;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key other = (Key) o;
+            return region == other.region && width == other.width && height == other.height && angle == other.angle;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((System.identityHashCode(region) * 31 + width) * 31 + height) * 31 + angle;
+        }
+    }
+}
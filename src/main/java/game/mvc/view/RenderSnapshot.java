@@ -0,0 +1,335 @@
+package game.mvc.view;
+
+import game.mvc.controller.CommandCenter;
+import game.mvc.model.LaserCannon;
+import game.mvc.model.Movable;
+import game.mvc.model.RenderSink;
+import game.mvc.model.prime.AtlasRegion;
+import game.mvc.model.prime.Outline;
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Everything the GamePanel needs to draw one frame, captured by the simulation thread right after a tick, so that a
+ * render thread can draw it while the simulation goes on with the next tick. Nothing in a snapshot refers to mutable
+ * game state.
+ *
+ * The snapshot is a RenderSink: capture() lets every Movable draw() itself into it, which records the draw calls as
+ * commands in flat arrays (an op code, up to ARGS ints and REFS references each: colors, strings, fonts, outlines,
+ * atlas regions and images, none of which change once handed to a sink). The commands of each Movable form an entry,
+ * which also records its handle, draw bounds, appearance and whether it isBackground(), for the BackgroundLayer and
+ * the DamageTracker. The HUD values are copied as well.
+ *
+ * Movables are captured as they are at the end of the tick (render alpha 1). An entry also remembers how far its
+ * bounds moved during the tick, and draw() shifts it back by (1 - alpha) of that, which is how the renderer still
+ * interpolates between the last two ticks.
+ *
+ * Snapshots are reused: one is only written by the simulation thread and only read by the render thread at a time,
+ * see TripleBuffer.
+ */
+public final class RenderSnapshot implements RenderSink {
+
+    private static final int ARGS = 5;
+    private static final int REFS = 3;
+
+    private static final byte RASTER = 0;
+    private static final byte IMAGE = 1;
+    private static final byte OUTLINE = 2;
+    private static final byte OVAL = 3;
+    private static final byte FILL_RECT = 4;
+    private static final byte STRING = 5;
+    private static final byte CENTERED_STRING = 6;
+
+    //numbers the captures, so the renderer can tell a new snapshot from one it has drawn before
+    @Getter
+    private long sequence;
+    //System.nanoTime() at which the tick that this is the result of was due; alpha is measured from here
+    @Getter
+    private long tickNanos;
+    //see Simulation.takeInputNanos()
+    @Getter
+    private long inputNanos;
+
+    //the HUD
+    @Getter
+    private boolean gameOver;
+    @Getter
+    private boolean paused;
+    @Getter
+    private long frame;
+    @Getter
+    private int level;
+    @Getter
+    private CommandCenter.Universe universe;
+    @Getter
+    private long score;
+    @Getter
+    private int numLaserCannons;
+    @Getter
+    private boolean showLevel;
+    @Getter
+    private boolean maxSpeedAttained;
+    @Getter
+    private boolean nukeReady;
+
+    //entries, in drawing order (debris, floaters, foes, friends); the commands of entry i are
+    //firstCommands[i] until firstCommands[i + 1]
+    private int numEntries;
+    private int[] handles = new int[256];
+    private int[] xs = new int[256];
+    private int[] ys = new int[256];
+    private int[] widths = new int[256];
+    private int[] heights = new int[256];
+    private int[] dxs = new int[256];
+    private int[] dys = new int[256];
+    private long[] appearances = new long[256];
+    private boolean[] backgrounds = new boolean[256];
+    private int[] firstCommands = new int[257];
+
+    private int numCommands;
+    private byte[] ops = new byte[512];
+    private int[] args = new int[512 * ARGS];
+    private Object[] refs = new Object[512 * REFS];
+
+    private final Rectangle bounds = new Rectangle();
+
+    /**
+     * Replaces the contents of this snapshot with the current state of the game. Must be called by the thread that
+     * runs the simulation, between two ticks.
+     */
+    public void capture(long sequence, long tickNanos, long inputNanos) {
+        CommandCenter commandCenter = CommandCenter.getInstance();
+        this.sequence = sequence;
+        this.tickNanos = tickNanos;
+        this.inputNanos = inputNanos;
+
+        gameOver = commandCenter.isGameOver();
+        paused = commandCenter.isPaused();
+        frame = commandCenter.getFrame();
+        level = commandCenter.getLevel();
+        universe = commandCenter.getUniverse();
+        score = commandCenter.getScore();
+        numLaserCannons = commandCenter.getNumlaserCannons();
+        LaserCannon laserCannon = commandCenter.getLaserCannon();
+        showLevel = laserCannon.getShowLevel() > 0;
+        maxSpeedAttained = laserCannon.isMaxSpeedAttained();
+        nukeReady = laserCannon.getNukeMeter() > 0;
+
+        //first where everything was at the start of the tick, then where it is now, along with its draw calls
+        numEntries = 0;
+        numCommands = 0;
+        commandCenter.setRenderAlpha(0);
+        captureStart(commandCenter.getMovDebris());
+        captureStart(commandCenter.getMovFloaters());
+        captureStart(commandCenter.getMovFoes());
+        captureStart(commandCenter.getMovFriends());
+        commandCenter.setRenderAlpha(1);
+        int entry = 0;
+        entry = captureEnd(commandCenter.getMovDebris(), entry);
+        entry = captureEnd(commandCenter.getMovFloaters(), entry);
+        entry = captureEnd(commandCenter.getMovFoes(), entry);
+        captureEnd(commandCenter.getMovFriends(), entry);
+        firstCommands[numEntries] = numCommands;
+        //the references of the last, longer snapshot are no longer needed
+        Arrays.fill(refs, numCommands * REFS, refs.length, null);
+    }
+
+    private void captureStart(List<Movable> team) {
+        for (int i = 0, size = team.size(); i < size; i++) {
+            if (numEntries == handles.length) growEntries();
+            team.get(i).getDrawBounds(bounds);
+            xs[numEntries] = bounds.x;
+            ys[numEntries] = bounds.y;
+            numEntries++;
+        }
+    }
+
+    private int captureEnd(List<Movable> team, int entry) {
+        for (int i = 0, size = team.size(); i < size; i++, entry++) {
+            Movable mov = team.get(i);
+            mov.getDrawBounds(bounds);
+            dxs[entry] = bounds.x - xs[entry];
+            dys[entry] = bounds.y - ys[entry];
+            xs[entry] = bounds.x;
+            ys[entry] = bounds.y;
+            widths[entry] = bounds.width;
+            heights[entry] = bounds.height;
+            handles[entry] = mov.getHandle();
+            appearances[entry] = mov.getAppearance();
+            backgrounds[entry] = mov.isBackground();
+            firstCommands[entry] = numCommands;
+            mov.draw(this);
+        }
+        return entry;
+    }
+
+    public int getNumEntries() {
+        return numEntries;
+    }
+
+    public int getHandle(int entry) {
+        return handles[entry];
+    }
+
+    public long getAppearance(int entry) {
+        return appearances[entry];
+    }
+
+    public boolean isBackground(int entry) {
+        return backgrounds[entry];
+    }
+
+    //the draw bounds of the entry, interpolated to alpha
+    public void getBounds(int entry, double alpha, Rectangle bounds) {
+        bounds.setBounds(xs[entry] + offset(dxs[entry], alpha), ys[entry] + offset(dys[entry], alpha), widths[entry],
+                heights[entry]);
+    }
+
+    //replays the draw calls of the entry onto the sink, interpolated to alpha
+    public void draw(int entry, RenderSink sink, double alpha) {
+        draw(entry, sink, alpha, Integer.MIN_VALUE, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Replays the draw calls of the entry onto the sink, interpolated to alpha, leaving out the rasters and images that
+     * lie entirely outside the rows from top (inclusive) to bottom (exclusive); see BandedRenderer.
+     */
+    public void draw(int entry, RenderSink sink, double alpha, int top, int bottom) {
+        int ox = offset(dxs[entry], alpha);
+        int oy = offset(dys[entry], alpha);
+        for (int command = firstCommands[entry]; command < firstCommands[entry + 1]; command++) {
+            int a = command * ARGS;
+            int r = command * REFS;
+            switch (ops[command]) {
+                case RASTER:
+                    //half the height of the raster at any orientation is at most (width + height) / 2
+                    int extent = (args[a + 2] + args[a + 3] + 1) / 2;
+                    if (args[a + 1] + oy + extent <= top || args[a + 1] + oy - extent >= bottom) break;
+                    sink.drawRaster((AtlasRegion) refs[r], args[a] + ox, args[a + 1] + oy, args[a + 2], args[a + 3],
+                            args[a + 4]);
+                    break;
+                case IMAGE:
+                    int imageY = args[a + 1] + oy;
+                    if (imageY >= bottom || imageY + ((BufferedImage) refs[r]).getHeight() <= top) break;
+                    sink.drawImage((BufferedImage) refs[r], args[a] + ox, args[a + 1] + oy);
+                    break;
+                case OUTLINE:
+                    sink.drawOutline((Outline) refs[r], args[a] + ox, args[a + 1] + oy, (Color) refs[r + 1]);
+                    break;
+                case OVAL:
+                    sink.drawOval(args[a] + ox, args[a + 1] + oy, args[a + 2], args[a + 3], (Color) refs[r]);
+                    break;
+                case FILL_RECT:
+                    sink.fillRect(args[a] + ox, args[a + 1] + oy, args[a + 2], args[a + 3], (Color) refs[r]);
+                    break;
+                case STRING:
+                    sink.drawString((String) refs[r], args[a] + ox, args[a + 1] + oy, (Color) refs[r + 1]);
+                    break;
+                case CENTERED_STRING:
+                    sink.drawCenteredString((String) refs[r], args[a] + ox, args[a + 1] + oy, (Font) refs[r + 1],
+                            (Color) refs[r + 2]);
+                    break;
+                default:
+                    throw new IllegalStateException("Unknown command " + ops[command]);
+            }
+        }
+    }
+
+    private static int offset(int delta, double alpha) {
+        return delta == 0 ? 0 : (int) Math.round((alpha - 1) * delta);
+    }
+
+    // ==============================================================
+    // RenderSink: records the draw calls of the Movable being captured
+    // ==============================================================
+
+    @Override
+    public void drawRaster(AtlasRegion region, int centerX, int centerY, int width, int height, int orientation) {
+        int a = add(RASTER, region, null, null);
+        args[a] = centerX;
+        args[a + 1] = centerY;
+        args[a + 2] = width;
+        args[a + 3] = height;
+        args[a + 4] = orientation;
+    }
+
+    @Override
+    public void drawImage(BufferedImage image, int x, int y) {
+        int a = add(IMAGE, image, null, null);
+        args[a] = x;
+        args[a + 1] = y;
+    }
+
+    @Override
+    public void drawOutline(Outline outline, int x, int y, Color color) {
+        int a = add(OUTLINE, outline, color, null);
+        args[a] = x;
+        args[a + 1] = y;
+    }
+
+    @Override
+    public void drawOval(int x, int y, int width, int height, Color color) {
+        int a = add(OVAL, color, null, null);
+        args[a] = x;
+        args[a + 1] = y;
+        args[a + 2] = width;
+        args[a + 3] = height;
+    }
+
+    @Override
+    public void fillRect(int x, int y, int width, int height, Color color) {
+        int a = add(FILL_RECT, color, null, null);
+        args[a] = x;
+        args[a + 1] = y;
+        args[a + 2] = width;
+        args[a + 3] = height;
+    }
+
+    @Override
+    public void drawString(String text, int x, int y, Color color) {
+        int a = add(STRING, text, color, null);
+        args[a] = x;
+        args[a + 1] = y;
+    }
+
+    @Override
+    public void drawCenteredString(String text, int centerX, int centerY, Font font, Color color) {
+        int a = add(CENTERED_STRING, text, font, color);
+        args[a] = centerX;
+        args[a + 1] = centerY;
+    }
+
+    //appends a command, and returns the index of its first int argument
+    private int add(byte op, Object ref0, Object ref1, Object ref2) {
+        if (numCommands == ops.length) {
+            ops = Arrays.copyOf(ops, ops.length * 2);
+            args = Arrays.copyOf(args, args.length * 2);
+            refs = Arrays.copyOf(refs, refs.length * 2);
+        }
+        int command = numCommands++;
+        ops[command] = op;
+        int r = command * REFS;
+        refs[r] = ref0;
+        refs[r + 1] = ref1;
+        refs[r + 2] = ref2;
+        return command * ARGS;
+    }
+
+    private void growEntries() {
+        int capacity = handles.length * 2;
+        handles = Arrays.copyOf(handles, capacity);
+        xs = Arrays.copyOf(xs, capacity);
+        ys = Arrays.copyOf(ys, capacity);
+        widths = Arrays.copyOf(widths, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        dxs = Arrays.copyOf(dxs, capacity);
+        dys = Arrays.copyOf(dys, capacity);
+        appearances = Arrays.copyOf(appearances, capacity);
+        backgrounds = Arrays.copyOf(backgrounds, capacity);
+        firstCommands = Arrays.copyOf(firstCommands, capacity + 1);
+    }
+}